@@ -1,5 +1,6 @@
 package com.launchdarkly.sdk.server.integrations;
 
+import com.launchdarkly.logging.LDLogger;
 import com.launchdarkly.sdk.server.Components;
 import com.launchdarkly.sdk.server.subsystems.BigSegmentStore;
 import com.launchdarkly.sdk.server.subsystems.ComponentConfigurer;
@@ -87,5 +88,30 @@ public abstract class Redis {
     return new RedisStoreBuilder.ForBigSegments();
   }
   
+  /**
+   * Creates an object for writing Big Segment membership data directly to Redis.
+   * <p>
+   * This is not needed if you are using the LaunchDarkly Relay Proxy to populate Big Segment data.
+   * The writer uses the same Redis options (URI, prefix, pool configuration, etc.) as the Big Segment
+   * store that would be created from the same builder, so you can use one builder configuration to
+   * write data and another, identical one to read it. Options that only apply to a running store,
+   * such as hedged reads, the membership cache, adaptive pool sizing, and connection warm-up, are
+   * ignored by the writer.
+   * <pre><code>
+   *     try (RedisBigSegmentWriter writer = Redis.bigSegmentWriter(
+   *         Redis.bigSegmentStore().uri(URI.create("redis://my-redis-host")), LDLogger.none())) {
+   *       writer.applyChanges(changes, System.currentTimeMillis());
+   *     }
+   * </code></pre>
+   *
+   * @param config the Redis configuration
+   * @param logger the logger to use for progress messages
+   * @return a writer, which must be closed when no longer needed
+   * @since 3.1.0
+   */
+  public static RedisBigSegmentWriter bigSegmentWriter(RedisStoreBuilder<BigSegmentStore> config, LDLogger logger) {
+    return new RedisBigSegmentWriter(config, logger);
+  }
+
   private Redis() {}
 }
@@ -7,36 +7,84 @@ import com.launchdarkly.sdk.server.subsystems.BigSegmentStoreTypes;
 import java.util.Set;
 
 import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
 
 final class RedisBigSegmentStoreImpl extends RedisStoreImplBase implements BigSegmentStore {
   private final String syncTimeKey;
   private final String includedKeyPrefix;
   private final String excludedKeyPrefix;
+  private final RedisMembershipCache membershipCache;
+  private final RedisShardRing<JedisPool> shards;
+  private final boolean metadataFromAllShards;
 
   RedisBigSegmentStoreImpl(RedisStoreBuilder<BigSegmentStore> builder, LDLogger baseLogger) {
-    super(builder, baseLogger.subLogger("BigSegments").subLogger("Redis"));
+    super(builder, baseLogger.subLogger("BigSegments").subLogger("Redis"), false);
     syncTimeKey = prefix + ":big_segments_synchronized_on";
     includedKeyPrefix = prefix + ":big_segment_include:";
     excludedKeyPrefix = prefix + ":big_segment_exclude:";
+    membershipCache = builder.membershipCacheSize <= 0 ? null :
+      new RedisMembershipCache(builder.membershipCacheSize, builder.membershipCacheTime);
+    try {
+      shards = connections.makeShardRing(pool, poolConfig);
+    } catch (RuntimeException e) {
+      releaseResources();
+      throw e;
+    }
+    metadataFromAllShards = shards != null && builder.shardMetadataFromAll;
   }
 
   @Override
   public BigSegmentStoreTypes.Membership getMembership(String userHash) {
-    try (Jedis jedis = pool.getResource()) {
+    if (membershipCache == null) {
+      return queryMembership(userHash);
+    }
+    RedisMembershipCache.Entry cached = membershipCache.get(userHash);
+    if (cached != null) {
+      return cached.membership;
+    }
+    long generation = membershipCache.getGeneration();
+    BigSegmentStoreTypes.Membership membership = queryMembership(userHash);
+    membershipCache.put(userHash, membership, generation);
+    return membership;
+  }
+
+  private BigSegmentStoreTypes.Membership queryMembership(String userHash) {
+    return read(shards == null ? pool : shards.get(userHash), jedis -> {
       Set<String> includedRefs = jedis.smembers(includedKeyPrefix + userHash);
       Set<String> excludedRefs = jedis.smembers(excludedKeyPrefix + userHash);
       return BigSegmentStoreTypes.createMembershipFromSegmentRefs(includedRefs, excludedRefs);
-    }
+    });
   }
 
   @Override
   public BigSegmentStoreTypes.StoreMetadata getMetadata() {
-    try (Jedis jedis = pool.getResource()) {
-      String value = jedis.get(syncTimeKey);
+    String value = metadataFromAllShards ? getEarliestSyncTime() : getSyncTime(pool);
+    if (membershipCache != null) {
+      membershipCache.syncTimeObserved(value);
+    }
+    if (value == null || value.isEmpty()) {
+      return null;
+    }
+    return new BigSegmentStoreTypes.StoreMetadata(Long.parseLong(value));
+  }
+
+  private String getSyncTime(JedisPool fromPool) {
+    try (Jedis jedis = fromPool.getResource()) {
+      return jedis.get(syncTimeKey);
+    }
+  }
+
+  private String getEarliestSyncTime() {
+    String earliest = null;
+    for (JedisPool shardPool: shards.getShards()) {
+      String value = getSyncTime(shardPool);
       if (value == null || value.isEmpty()) {
         return null;
       }
-      return new BigSegmentStoreTypes.StoreMetadata(Long.parseLong(value));
+      if (earliest == null || Long.parseLong(value) < Long.parseLong(earliest)) {
+        earliest = value;
+      }
     }
+    return earliest;
   }
 }
@@ -0,0 +1,312 @@
+package com.launchdarkly.sdk.server.integrations;
+
+import com.launchdarkly.logging.LDLogger;
+import com.launchdarkly.sdk.server.subsystems.BigSegmentStore;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.exceptions.JedisDataException;
+
+/**
+ * Writes Big Segment membership data to Redis, in the same format that is read by the store
+ * created with {@link Redis#bigSegmentStore()}.
+ * <p>
+ * Normally Big Segment data is populated by the LaunchDarkly Relay Proxy. This class is for
+ * applications that need to load it some other way, such as when populating a test environment
+ * with a large number of users. Changes are sent in batches using Redis pipelining, and the
+ * Big Segment sync time is only updated once all of the changes have been written, so that
+ * an SDK reading the data does not consider it to be up to date until then.
+ * <p>
+ * Obtain an instance from {@link Redis#bigSegmentWriter(RedisStoreBuilder, LDLogger)}, and
+ * close it when you are done with it.
+ *
+ * @since 3.1.0
+ */
+public final class RedisBigSegmentWriter implements Closeable {
+  /**
+   * The default number of changes that are sent to Redis in each pipelined batch.
+   */
+  public static final int DEFAULT_BATCH_SIZE = 1000;
+
+  private final LDLogger logger;
+  private final RedisConnectionPools connections;
+  private final JedisPool pool;
+  private final RedisShardRing<JedisPool> shards;
+  private final String syncTimeKey;
+  private final String includedKeyPrefix;
+  private final String excludedKeyPrefix;
+
+  RedisBigSegmentWriter(RedisStoreBuilder<BigSegmentStore> builder, LDLogger baseLogger) {
+    logger = baseLogger.subLogger("BigSegments").subLogger("Redis");
+    logger.info("Writing Big Segment data to Redis at {}", RedisConnectionPools.describeUri(builder, builder.uri));
+
+    String prefix = (builder.prefix == null || builder.prefix.isEmpty()) ?
+        RedisStoreBuilder.DEFAULT_PREFIX :
+        builder.prefix;
+    syncTimeKey = prefix + ":big_segments_synchronized_on";
+    includedKeyPrefix = prefix + ":big_segment_include:";
+    excludedKeyPrefix = prefix + ":big_segment_exclude:";
+
+    // The writer only writes, so if a separate write pool configuration was specified, that is
+    // the one it uses for every host.
+    JedisPoolConfig poolConfig = builder.writePoolConfig != null ? builder.writePoolConfig :
+      builder.poolConfig != null ? builder.poolConfig : new JedisPoolConfig();
+    connections = new RedisConnectionPools(builder, logger, false);
+    try {
+      pool = connections.makePool(builder.uri, poolConfig);
+      shards = connections.makeShardRing(pool, poolConfig);
+    } catch (RuntimeException e) {
+      connections.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Applies a set of membership changes using the default batch size, and then updates the
+   * Big Segment sync time.
+   *
+   * @param changes the changes to apply
+   * @param syncTime the new sync time, in milliseconds since the epoch
+   * @return information about the completed operation
+   * @see #applyChanges(Iterable, long, int)
+   */
+  public Result applyChanges(Iterable<Change> changes, long syncTime) {
+    return applyChanges(changes, syncTime, DEFAULT_BATCH_SIZE);
+  }
+
+  /**
+   * Applies a set of membership changes, and then updates the Big Segment sync time.
+   * <p>
+   * The changes are read from the {@code Iterable} as they are sent, so they do not all need to be
+   * held in memory at once. Only the listed memberships are changed; any other existing data is left
+   * as it is, so the same method can be used both for an initial bulk load and for incremental
+   * updates. If writing any batch fails, the exception is thrown and the sync time is not updated;
+   * batches that were already written are not rolled back.
+   *
+   * @param changes the changes to apply
+   * @param syncTime the new sync time, in milliseconds since the epoch
+   * @param batchSize the maximum number of changes to send to Redis in each pipelined batch
+   * @return information about the completed operation
+   */
+  public Result applyChanges(Iterable<Change> changes, long syncTime, int batchSize) {
+    if (batchSize <= 0) {
+      throw new IllegalArgumentException("batchSize must be positive");
+    }
+    long startTime = System.nanoTime();
+    long changeCount = 0;
+    int batchCount = 0;
+    List<Change> batch = new ArrayList<>(batchSize);
+    for (Change change: changes) {
+      batch.add(change);
+      if (batch.size() == batchSize) {
+        writeBatch(batch);
+        changeCount += batch.size();
+        batchCount++;
+        batch.clear();
+      }
+    }
+    if (!batch.isEmpty()) {
+      writeBatch(batch);
+      changeCount += batch.size();
+      batchCount++;
+    }
+
+    // The sync time is written to every shard as well as the main host, so that it is correct
+    // whichever way the reader has been configured to get it.
+    Set<JedisPool> syncTimePools = Collections.newSetFromMap(new IdentityHashMap<>());
+    syncTimePools.add(pool);
+    if (shards != null) {
+      syncTimePools.addAll(shards.getShards());
+    }
+    for (JedisPool p: syncTimePools) {
+      try (Jedis jedis = p.getResource()) {
+        jedis.set(syncTimeKey, Long.toString(syncTime));
+      }
+    }
+
+    Result result = new Result(changeCount, batchCount, Duration.ofNanos(System.nanoTime() - startTime));
+    logger.info("Wrote {} Big Segment membership changes in {} batches in {} ms ({} changes/second)",
+        result.getChangeCount(), result.getBatchCount(), result.getDuration().toMillis(),
+        (long) result.getChangesPerSecond());
+    return result;
+  }
+
+  private void writeBatch(List<Change> batch) {
+    // With shards, each batch is split into one pipeline per shard.
+    Map<JedisPool, Jedis> borrowed = new IdentityHashMap<>();
+    Map<JedisPool, Pipeline> pipelines = new IdentityHashMap<>();
+    try {
+      for (Change change: batch) {
+        JedisPool p = shards == null ? pool : shards.get(change.userHash);
+        Pipeline pipeline = pipelines.get(p);
+        if (pipeline == null) {
+          Jedis jedis = p.getResource();
+          borrowed.put(p, jedis);
+          pipeline = jedis.pipelined();
+          pipelines.put(p, pipeline);
+        }
+        String key = (change.included ? includedKeyPrefix : excludedKeyPrefix) + change.userHash;
+        if (change.add) {
+          pipeline.sadd(key, change.segmentRef);
+        } else {
+          pipeline.srem(key, change.segmentRef);
+        }
+      }
+      // Redis reports an error for an individual command, such as OOM or READONLY, only in that
+      // command's reply, so the replies must be checked. Every pipeline is read to the end before
+      // throwing, so that no connection is returned to its pool with unread replies.
+      JedisDataException error = null;
+      for (Pipeline pipeline: pipelines.values()) {
+        for (Object reply: pipeline.syncAndReturnAll()) {
+          if (error == null && reply instanceof JedisDataException) {
+            error = (JedisDataException) reply;
+          }
+        }
+      }
+      if (error != null) {
+        throw error;
+      }
+    } finally {
+      for (Jedis jedis: borrowed.values()) {
+        jedis.close();
+      }
+    }
+    logger.debug("Wrote batch of {} Big Segment membership changes", batch.size());
+  }
+
+  /**
+   * Closes all connections to Redis.
+   */
+  @Override
+  public void close() {
+    connections.close();
+  }
+
+  /**
+   * A single change to Big Segment membership: adding or removing one segment reference in
+   * either the included or excluded set of one user hash.
+   * <p>
+   * Segment references are in the form used by the LaunchDarkly Relay Proxy, which is the segment
+   * key followed by {@code ".g"} and the segment's generation number.
+   */
+  public static final class Change {
+    final String userHash;
+    final String segmentRef;
+    final boolean included;
+    final boolean add;
+
+    private Change(String userHash, String segmentRef, boolean included, boolean add) {
+      this.userHash = userHash;
+      this.segmentRef = segmentRef;
+      this.included = included;
+      this.add = add;
+    }
+
+    /**
+     * Creates a change that explicitly includes a user in a segment.
+     *
+     * @param userHash the hashed user key
+     * @param segmentRef the segment reference
+     * @return a change
+     */
+    public static Change addIncluded(String userHash, String segmentRef) {
+      return new Change(userHash, segmentRef, true, true);
+    }
+
+    /**
+     * Creates a change that removes an explicit inclusion of a user in a segment.
+     *
+     * @param userHash the hashed user key
+     * @param segmentRef the segment reference
+     * @return a change
+     */
+    public static Change removeIncluded(String userHash, String segmentRef) {
+      return new Change(userHash, segmentRef, true, false);
+    }
+
+    /**
+     * Creates a change that explicitly excludes a user from a segment.
+     *
+     * @param userHash the hashed user key
+     * @param segmentRef the segment reference
+     * @return a change
+     */
+    public static Change addExcluded(String userHash, String segmentRef) {
+      return new Change(userHash, segmentRef, false, true);
+    }
+
+    /**
+     * Creates a change that removes an explicit exclusion of a user from a segment.
+     *
+     * @param userHash the hashed user key
+     * @param segmentRef the segment reference
+     * @return a change
+     */
+    public static Change removeExcluded(String userHash, String segmentRef) {
+      return new Change(userHash, segmentRef, false, false);
+    }
+  }
+
+  /**
+   * Information about a completed call to {@link RedisBigSegmentWriter#applyChanges(Iterable, long, int)}.
+   */
+  public static final class Result {
+    private final long changeCount;
+    private final int batchCount;
+    private final Duration duration;
+
+    Result(long changeCount, int batchCount, Duration duration) {
+      this.changeCount = changeCount;
+      this.batchCount = batchCount;
+      this.duration = duration;
+    }
+
+    /**
+     * Returns the number of changes that were written.
+     *
+     * @return the number of changes
+     */
+    public long getChangeCount() {
+      return changeCount;
+    }
+
+    /**
+     * Returns the number of pipelined batches that were sent.
+     *
+     * @return the number of batches
+     */
+    public int getBatchCount() {
+      return batchCount;
+    }
+
+    /**
+     * Returns the total time taken, including updating the sync time.
+     *
+     * @return the elapsed time
+     */
+    public Duration getDuration() {
+      return duration;
+    }
+
+    /**
+     * Returns the average throughput.
+     *
+     * @return the number of changes written per second
+     */
+    public double getChangesPerSecond() {
+      long nanos = duration.toNanos();
+      return nanos == 0 ? 0 : changeCount * 1_000_000_000.0 / nanos;
+    }
+  }
+}
@@ -0,0 +1,190 @@
+package com.launchdarkly.sdk.server.integrations;
+
+import com.launchdarkly.logging.LDLogger;
+
+import java.io.Closeable;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.Protocol;
+
+/**
+ * Creates Jedis connection pools with the connection options of a {@link RedisStoreBuilder}, and keeps
+ * track of them so that they can all be destroyed together.
+ * <p>
+ * This is shared by the stores and by {@link RedisBigSegmentWriter}, so that they connect to Redis in
+ * exactly the same way. Only the stores use adaptive pool sizing and connection warm-up; the writer
+ * starts using its connections as soon as it is created anyway. If creating a pool fails, the owner
+ * must still call {@link #close()}, to destroy any pools that were already created.
+ */
+final class RedisConnectionPools implements Closeable {
+  private final RedisStoreBuilder<?> builder;
+  private final LDLogger logger;
+  private final boolean adaptiveSizing;
+  private final boolean warmUp;
+  private final List<RedisPoolSizer.ResizablePool> pools = new ArrayList<>();
+  private RedisPoolSizer poolSizer;
+
+  RedisConnectionPools(RedisStoreBuilder<?> builder, LDLogger logger, boolean forStore) {
+    this.builder = builder;
+    this.logger = logger;
+    this.adaptiveSizing = forStore && builder.adaptivePoolMaxSize > 0;
+    this.warmUp = forStore && builder.warmUpConnections > 0;
+  }
+
+  /**
+   * Starts adjusting the sizes of all pools, including any that are created later, if adaptive sizing
+   * is enabled. Since this starts a thread, it should only be called once the pools that are needed
+   * at startup have been created successfully.
+   */
+  void startPoolSizing() {
+    if (adaptiveSizing && poolSizer == null) {
+      poolSizer = new RedisPoolSizer(builder.adaptivePoolMinSize, builder.adaptivePoolMaxSize, logger);
+      for (RedisPoolSizer.ResizablePool p: pools) {
+        poolSizer.add(p);
+      }
+    }
+  }
+
+  // There is no builder for JedisPool, just a large number of constructor overloads. Unfortunately,
+  // the overloads that accept a URI do not accept the other parameters we need to set, so we need
+  // to decompose the URI.
+  JedisPool makePool(URI uri, JedisPoolConfig poolConfig) {
+    RedisPoolSizer.ResizablePool newPool = new RedisPoolSizer.ResizablePool(poolConfig,
+        uri.getHost(),
+        uri.getPort(),
+        (int) builder.connectTimeout.toMillis(),
+        (int) builder.socketTimeout.toMillis(),
+        getPassword(builder, uri),
+        getDatabase(builder, uri),
+        isTls(builder, uri)
+    );
+    pools.add(newPool);
+    if (poolSizer != null) {
+      poolSizer.add(newPool);
+    } else if (adaptiveSizing) {
+      newPool.setSize(builder.adaptivePoolMinSize); // where the pool sizer will start it
+    }
+    if (warmUp) {
+      warmUp(newPool, uri, poolConfig);
+    }
+    return newPool;
+  }
+
+  /**
+   * Creates a consistent hash ring over the shards configured with {@link RedisStoreBuilder#shardUris(List)},
+   * or returns null if there are none. A shard on the same host and database as the main host uses the
+   * main pool.
+   */
+  RedisShardRing<JedisPool> makeShardRing(JedisPool mainPool, JedisPoolConfig poolConfig) {
+    if (builder.shardUris == null || builder.shardUris.isEmpty()) {
+      return null;
+    }
+    String mainId = shardId(builder, builder.uri);
+    List<String> ids = new ArrayList<>();
+    List<JedisPool> shardPools = new ArrayList<>();
+    for (URI uri: builder.shardUris) {
+      String id = shardId(builder, uri);
+      if (ids.contains(id)) {
+        logger.warn("Ignoring duplicate Redis shard at {}", describeUri(builder, uri));
+        continue;
+      }
+      ids.add(id);
+      if (id.equals(mainId)) {
+        shardPools.add(mainPool);
+      } else {
+        logger.info("Using Redis shard at {}", describeUri(builder, uri));
+        shardPools.add(makePool(uri, poolConfig));
+      }
+    }
+    return new RedisShardRing<>(ids, shardPools);
+  }
+
+  // The shard ID determines which user hashes are stored on a shard, so every reader and writer must
+  // compute the same ID for it. It therefore includes only the host, port, and database, and not the
+  // password or any other detail of how the URI is written, so that changing those does not move data.
+  static String shardId(RedisStoreBuilder<?> builder, URI uri) {
+    int port = uri.getPort() < 0 ? Protocol.DEFAULT_PORT : uri.getPort();
+    return uri.getHost().toLowerCase(Locale.ROOT) + ":" + port + "/" + getDatabase(builder, uri);
+  }
+
+  // Opens connections in advance, and verifies that they work, so that the first requests do not
+  // have to wait for connecting, TLS negotiation, and authentication. We never borrow more than the
+  // pool can hold, since that would block, and never more than it can keep idle, since any beyond
+  // that would be closed as soon as they were returned.
+  private void warmUp(JedisPool newPool, URI uri, JedisPoolConfig poolConfig) {
+    int count = builder.warmUpConnections;
+    if (adaptiveSizing) {
+      count = Math.min(count, builder.adaptivePoolMinSize);
+    } else {
+      if (poolConfig.getMaxTotal() >= 0) {
+        count = Math.min(count, poolConfig.getMaxTotal());
+      }
+      if (poolConfig.getMaxIdle() >= 0) {
+        count = Math.min(count, poolConfig.getMaxIdle());
+      }
+    }
+    long startTime = System.nanoTime();
+    List<Jedis> connections = new ArrayList<>(count);
+    try {
+      for (int i = 0; i < count; i++) {
+        Jedis jedis = newPool.getResource();
+        connections.add(jedis);
+        jedis.ping();
+      }
+      logger.debug("Opened {} connections to Redis at {}:{} in {} ms", count, uri.getHost(), uri.getPort(),
+          (System.nanoTime() - startTime) / 1_000_000);
+    } catch (RuntimeException e) {
+      // Not fatal; connections will be opened on demand as usual, and any ongoing problem with
+      // Redis will be reported when the store is used.
+      logger.warn("Unable to open connections to Redis at {}:{} in advance: {}", uri.getHost(), uri.getPort(),
+          e.toString());
+    } finally {
+      for (Jedis jedis: connections) {
+        jedis.close();
+      }
+    }
+  }
+
+  static String describeUri(RedisStoreBuilder<?> builder, URI uri) {
+    String description = uri.getHost() + ":" + uri.getPort() + "/" + getDatabase(builder, uri);
+    if (isTls(builder, uri)) {
+      description = withFeature(description, "TLS");
+    }
+    if (getPassword(builder, uri) != null) {
+      description = withFeature(description, "password");
+    }
+    return description;
+  }
+
+  static String withFeature(String description, String feature) {
+    return description + (description.contains(" with ") ? " and " : " with ") + feature;
+  }
+
+  private static String getPassword(RedisStoreBuilder<?> builder, URI uri) {
+    return builder.password == null ? RedisURIComponents.getPassword(uri) : builder.password;
+  }
+
+  private static int getDatabase(RedisStoreBuilder<?> builder, URI uri) {
+    return builder.database == null ? RedisURIComponents.getDBIndex(uri) : builder.database;
+  }
+
+  private static boolean isTls(RedisStoreBuilder<?> builder, URI uri) {
+    return builder.tls || uri.getScheme().equals("rediss");
+  }
+
+  @Override
+  public void close() {
+    if (poolSizer != null) {
+      poolSizer.close();
+    }
+    for (JedisPool p: pools) {
+      p.destroy();
+    }
+  }
+}
@@ -20,32 +20,30 @@ final class RedisDataStoreImpl extends RedisStoreImplBase implements PersistentD
   private UpdateListener updateListener;
   
   RedisDataStoreImpl(RedisStoreBuilder<PersistentDataStore> builder, LDLogger baseLogger) {
-    super(builder, baseLogger.subLogger("DataStore").subLogger("Redis"));
+    super(builder, baseLogger.subLogger("DataStore").subLogger("Redis"), true);
   }
   
   @Override
   public SerializedItemDescriptor get(DataKind kind, String key) {
-    try (Jedis jedis = pool.getResource()) {
+    return read(jedis -> {
       String item = getRedis(kind, key, jedis);
       return item == null ? null : new SerializedItemDescriptor(0, false, item);
-    }
+    });
   }
 
   @Override
   public KeyedItems<SerializedItemDescriptor> getAll(DataKind kind) {
-    try (Jedis jedis = pool.getResource()) {
-      Map<String, String> allJson = jedis.hgetAll(itemsKey(kind));
-      List<Map.Entry<String, SerializedItemDescriptor>> itemsOut = new ArrayList<>(allJson.size());
-      for (Map.Entry<String, String> e: allJson.entrySet()) {
-        itemsOut.add(new AbstractMap.SimpleEntry<>(e.getKey(), new SerializedItemDescriptor(0, false, e.getValue())));
-      }
-      return new KeyedItems<>(itemsOut);
+    Map<String, String> allJson = read(jedis -> jedis.hgetAll(itemsKey(kind)));
+    List<Map.Entry<String, SerializedItemDescriptor>> itemsOut = new ArrayList<>(allJson.size());
+    for (Map.Entry<String, String> e: allJson.entrySet()) {
+      itemsOut.add(new AbstractMap.SimpleEntry<>(e.getKey(), new SerializedItemDescriptor(0, false, e.getValue())));
     }
+    return new KeyedItems<>(itemsOut);
   }
   
   @Override
   public void init(FullDataSet<SerializedItemDescriptor> allData) {
-    try (Jedis jedis = pool.getResource()) {
+    try (Jedis jedis = writePool.getResource()) {
       Transaction t = jedis.multi();
 
       for (Map.Entry<DataKind, KeyedItems<SerializedItemDescriptor>> e0: allData.getData()) {
@@ -67,7 +65,7 @@ final class RedisDataStoreImpl extends RedisStoreImplBase implements PersistentD
     while (true) {
       Jedis jedis = null;
       try {
-        jedis = pool.getResource();
+        jedis = writePool.getResource();
         String baseKey = itemsKey(kind);
         jedis.watch(baseKey);
   
@@ -0,0 +1,65 @@
+package com.launchdarkly.sdk.server.integrations;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters for the hedged reads that are enabled with {@link RedisStoreBuilder#hedgeDelay(Duration)}.
+ * <p>
+ * Obtain an instance from {@link RedisStoreBuilder#getHedgedReadStats()}. The counters are updated
+ * while the stores built from that builder are in use, so the same instance can be polled at any
+ * time, for instance to report the values to a metrics system.
+ *
+ * @since 3.1.0
+ */
+public final class RedisHedgedReadStats {
+  private final AtomicLong hedgesIssued = new AtomicLong();
+  private final AtomicLong hedgesWon = new AtomicLong();
+  private final AtomicLong hedgesSkipped = new AtomicLong();
+
+  RedisHedgedReadStats() {}
+
+  /**
+   * Returns the number of hedged requests that have been sent, because the first attempt at a
+   * read had not completed within the hedge delay.
+   *
+   * @return the number of hedged requests
+   */
+  public long getHedgesIssued() {
+    return hedgesIssued.get();
+  }
+
+  /**
+   * Returns the number of hedged requests that provided the result of a read, because they
+   * completed before the first attempt.
+   *
+   * @return the number of hedged requests that completed first
+   */
+  public long getHedgesWon() {
+    return hedgesWon.get();
+  }
+
+  /**
+   * Returns the number of reads that were not hedged even though hedging was enabled. This happens
+   * when every thread that is available for hedged reads is busy, in which case the read is
+   * performed directly on the calling thread, and when the first attempt is still waiting for a
+   * connection from the same pool that a hedged request would use.
+   *
+   * @return the number of reads that could not be hedged
+   */
+  public long getHedgesSkipped() {
+    return hedgesSkipped.get();
+  }
+
+  void hedgeIssued() {
+    hedgesIssued.incrementAndGet();
+  }
+
+  void hedgeWon() {
+    hedgesWon.incrementAndGet();
+  }
+
+  void hedgeSkipped() {
+    hedgesSkipped.incrementAndGet();
+  }
+}
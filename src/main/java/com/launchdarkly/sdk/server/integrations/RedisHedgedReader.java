@@ -0,0 +1,207 @@
+package com.launchdarkly.sdk.server.integrations;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.exceptions.JedisException;
+
+/**
+ * Runs read operations with optional hedging: if the first attempt has not completed within the
+ * hedge delay, a second attempt is started against another pool (or another connection from the
+ * same pool), and whichever attempt succeeds first provides the result.
+ * <p>
+ * Jedis calls cannot be interrupted once they are blocked on a socket, so "cancelling" the losing
+ * attempt means that its result is discarded; if it is still waiting to borrow a connection, it is
+ * interrupted so that it does not take a connection at all.
+ * <p>
+ * Since a losing attempt keeps its thread until Redis responds, the number of worker threads is
+ * bounded. If they are all busy, a read is performed on the calling thread without hedging, rather
+ * than adding more threads while Redis is already slow. A hedge is also skipped if it would borrow
+ * from the same pool as a first attempt that is still waiting for a connection, since that would
+ * only add to the demand on a pool that is already exhausted.
+ */
+final class RedisHedgedReader implements Closeable {
+  // The adaptive delay is the 95th percentile of the most recent LATENCY_SAMPLE_COUNT primary
+  // attempts, recomputed every RECALCULATE_INTERVAL samples.
+  private static final int LATENCY_SAMPLE_COUNT = 1000;
+  private static final int RECALCULATE_INTERVAL = 100;
+  private static final long MIN_ADAPTIVE_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  // The thread limit to use when a pool has no limit on its number of connections.
+  static final int DEFAULT_MAX_THREADS = 64;
+
+  private final ThreadPoolExecutor executor;
+  private final boolean adaptive;
+  private final RedisHedgedReadStats stats;
+  private volatile long delayNanos;
+
+  private final Object samplesLock = new Object();
+  private final long[] samples = new long[LATENCY_SAMPLE_COUNT];
+  private int sampleIndex = 0;
+  private int sampleCount = 0;
+  private int samplesSinceRecalculate = 0;
+
+  RedisHedgedReader(Duration delay, boolean adaptive, int maxThreads, RedisHedgedReadStats stats) {
+    this.delayNanos = delay.toNanos();
+    this.adaptive = adaptive;
+    this.stats = stats;
+    // With no queue, a task is rejected as soon as maxThreads tasks are running; idle threads exit
+    // after a minute, so that a burst of slow reads does not keep its threads forever.
+    this.executor = new ThreadPoolExecutor(0, maxThreads, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+        new ThreadFactory() {
+          private final AtomicInteger count = new AtomicInteger();
+
+          @Override
+          public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "LaunchDarkly-Redis-hedged-read-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+          }
+        });
+  }
+
+  <T> T read(JedisPool primaryPool, JedisPool hedgePool, Function<Jedis, T> op) {
+    ReadState<T> state = new ReadState<>();
+    Future<?> primary;
+    try {
+      primary = executor.submit(() -> attempt(primaryPool, op, state, false));
+    } catch (RejectedExecutionException e) {
+      stats.hedgeSkipped();
+      try (Jedis jedis = primaryPool.getResource()) {
+        return op.apply(jedis);
+      }
+    }
+    Future<?> hedge = null;
+    try {
+      try {
+        return state.result.get(delayNanos, TimeUnit.NANOSECONDS);
+      } catch (TimeoutException e) {
+        if (hedgePool == primaryPool && !state.primaryConnected) {
+          stats.hedgeSkipped();
+          return state.result.get();
+        }
+        state.attempts.incrementAndGet();
+        try {
+          hedge = executor.submit(() -> attempt(hedgePool, op, state, true));
+          stats.hedgeIssued();
+        } catch (RejectedExecutionException e1) {
+          state.hedgeNotStarted();
+          stats.hedgeSkipped();
+        }
+        return state.result.get();
+      }
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new JedisException(cause);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new JedisException(e);
+    } finally {
+      primary.cancel(true);
+      if (hedge != null) {
+        hedge.cancel(true);
+      }
+    }
+  }
+
+  private <T> void attempt(JedisPool pool, Function<Jedis, T> op, ReadState<T> state, boolean isHedge) {
+    long startTime = System.nanoTime();
+    T value;
+    try (Jedis jedis = pool.getResource()) {
+      if (!isHedge) {
+        state.primaryConnected = true;
+      }
+      value = op.apply(jedis);
+    } catch (RuntimeException e) {
+      state.failed(e);
+      return;
+    }
+    if (!isHedge) {
+      recordLatency(System.nanoTime() - startTime);
+    }
+    if (state.result.complete(value) && isHedge) {
+      stats.hedgeWon();
+    }
+  }
+
+  private void recordLatency(long nanos) {
+    if (!adaptive) {
+      return;
+    }
+    synchronized (samplesLock) {
+      samples[sampleIndex] = nanos;
+      sampleIndex = (sampleIndex + 1) % samples.length;
+      if (sampleCount < samples.length) {
+        sampleCount++;
+      }
+      if (++samplesSinceRecalculate < RECALCULATE_INTERVAL) {
+        return;
+      }
+      samplesSinceRecalculate = 0;
+      long[] sorted = Arrays.copyOf(samples, sampleCount);
+      Arrays.sort(sorted);
+      long p95 = sorted[(int) Math.ceil(sorted.length * 0.95) - 1];
+      delayNanos = Math.max(p95, MIN_ADAPTIVE_DELAY_NANOS);
+    }
+  }
+
+  Duration getDelay() {
+    return Duration.ofNanos(delayNanos);
+  }
+
+  RedisHedgedReadStats getStats() {
+    return stats;
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+
+  // The state that is shared by the attempts at a single read.
+  private static final class ReadState<T> {
+    final CompletableFuture<T> result = new CompletableFuture<>();
+    final AtomicInteger attempts = new AtomicInteger(1);
+    final AtomicInteger failures = new AtomicInteger();
+    final AtomicReference<RuntimeException> lastError = new AtomicReference<>();
+    volatile boolean primaryConnected = false;
+
+    void failed(RuntimeException e) {
+      // Only report a failure if no other attempt is still able to succeed.
+      lastError.set(e);
+      if (failures.incrementAndGet() >= attempts.get()) {
+        result.completeExceptionally(e);
+      }
+    }
+
+    void hedgeNotStarted() {
+      // If the first attempt failed while the hedge was being started, it left the error to be
+      // reported by the hedge, so it must be reported here instead.
+      int remaining = attempts.decrementAndGet();
+      if (failures.get() >= remaining) {
+        result.completeExceptionally(lastError.get());
+      }
+    }
+  }
+}
@@ -0,0 +1,140 @@
+package com.launchdarkly.sdk.server.integrations;
+
+import com.launchdarkly.sdk.server.subsystems.BigSegmentStoreTypes.Membership;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A bounded in-memory cache of Big Segment membership by user hash.
+ * <p>
+ * Entries are evicted in least-recently-used order once the maximum size is reached, and expire after
+ * a fixed time if one is configured. The whole cache is invalidated whenever a different Big Segment
+ * sync time is observed. To avoid a single lock being contended by every evaluation thread, the cache
+ * is split into independently locked stripes, whose capacities add up to the maximum size. Small caches
+ * use fewer stripes, so that uneven distribution of keys among stripes does not leave much of the
+ * capacity unused.
+ */
+final class RedisMembershipCache {
+  private static final int MAX_STRIPES = 16;
+  private static final int MIN_STRIPE_CAPACITY = 16;
+
+  private final Stripe[] stripes;
+  private final long ttlNanos;
+  private final AtomicLong generation = new AtomicLong();
+  private final AtomicReference<String> lastSyncTime = new AtomicReference<>();
+
+  RedisMembershipCache(int maxEntries, Duration ttl) {
+    int stripeCount = Math.max(1, Math.min(MAX_STRIPES, maxEntries / MIN_STRIPE_CAPACITY));
+    this.stripes = new Stripe[stripeCount];
+    for (int i = 0; i < stripeCount; i++) {
+      // Any remainder is spread over the first stripes, so that none of the maximum size is lost.
+      int stripeCapacity = maxEntries / stripeCount + (i < maxEntries % stripeCount ? 1 : 0);
+      stripes[i] = new Stripe(stripeCapacity);
+    }
+    this.ttlNanos = (ttl == null || ttl.isZero() || ttl.isNegative()) ? 0 : ttl.toNanos();
+  }
+
+  /**
+   * Returns the cached entry for this user hash, or null if there is none. The entry's membership
+   * may itself be null if that is what the store returned.
+   */
+  Entry get(String userHash) {
+    Stripe stripe = stripeFor(userHash);
+    synchronized (stripe) {
+      Entry entry = stripe.get(userHash);
+      if (entry != null && ttlNanos > 0 && System.nanoTime() - entry.createdAt > ttlNanos) {
+        stripe.remove(userHash);
+        return null;
+      }
+      return entry;
+    }
+  }
+
+  /**
+   * Returns the current generation, to be passed to {@link #put(String, Membership, long)} after
+   * querying the store.
+   */
+  long getGeneration() {
+    return generation.get();
+  }
+
+  /**
+   * Caches a membership result, unless the cache has been invalidated since the given generation was
+   * obtained; in that case the result may predate the latest sync, so it is discarded.
+   */
+  void put(String userHash, Membership membership, long fromGeneration) {
+    Stripe stripe = stripeFor(userHash);
+    synchronized (stripe) {
+      if (generation.get() == fromGeneration) {
+        stripe.put(userHash, new Entry(membership, System.nanoTime()));
+      }
+    }
+  }
+
+  /**
+   * Records the sync time that was read from the store, invalidating the cache if it has changed.
+   */
+  void syncTimeObserved(String syncTime) {
+    String previous = lastSyncTime.getAndSet(syncTime);
+    if (!Objects.equals(previous, syncTime)) {
+      invalidateAll();
+    }
+  }
+
+  void invalidateAll() {
+    // The generation must change before the stripes are cleared, so that a put() that started
+    // before this point cannot repopulate a stripe after it has been cleared.
+    generation.incrementAndGet();
+    for (Stripe stripe: stripes) {
+      synchronized (stripe) {
+        stripe.clear();
+      }
+    }
+  }
+
+  int size() {
+    int total = 0;
+    for (Stripe stripe: stripes) {
+      synchronized (stripe) {
+        total += stripe.size();
+      }
+    }
+    return total;
+  }
+
+  private Stripe stripeFor(String userHash) {
+    int h = userHash.hashCode();
+    h ^= (h >>> 16);
+    return stripes[(h & 0x7fffffff) % stripes.length];
+  }
+
+  static final class Entry {
+    final Membership membership;
+    final long createdAt;
+
+    Entry(Membership membership, long createdAt) {
+      this.membership = membership;
+      this.createdAt = createdAt;
+    }
+  }
+
+  @SuppressWarnings("serial")
+  private static final class Stripe extends LinkedHashMap<String, Entry> {
+    private final int capacity;
+
+    Stripe(int capacity) {
+      super(16, 0.75f, true); // access order, for LRU eviction
+      this.capacity = capacity;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+      return size() > capacity;
+    }
+  }
+}
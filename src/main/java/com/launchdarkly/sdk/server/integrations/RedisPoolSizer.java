@@ -0,0 +1,181 @@
+package com.launchdarkly.sdk.server.integrations;
+
+import com.launchdarkly.logging.LDLogger;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.exceptions.JedisException;
+
+/**
+ * Periodically adjusts the maximum size of connection pools, within fixed bounds, based on how
+ * many connections are in use and how long callers have been waiting to borrow one.
+ * <p>
+ * A pool grows by half when callers are waiting for a connection, or when every connection is in
+ * use and the recent average borrow wait is significant. It shrinks by a quarter only after it has
+ * been less than half used for several consecutive checks, so that it does not oscillate under
+ * bursty load.
+ */
+final class RedisPoolSizer implements Closeable {
+  private static final long CHECK_INTERVAL_MILLIS = 1000;
+  private static final long GROW_WAIT_THRESHOLD_MILLIS = 1;
+  static final int SHRINK_AFTER_CHECKS = 10;
+
+  private final int minSize;
+  private final int maxSize;
+  private final LDLogger logger;
+  private final List<SizedPool> pools = new CopyOnWriteArrayList<>();
+  private final ScheduledExecutorService executor;
+
+  RedisPoolSizer(int minSize, int maxSize, LDLogger logger) {
+    this(minSize, maxSize, logger, CHECK_INTERVAL_MILLIS);
+  }
+
+  // package-private for testing; a zero interval means that check() is only called explicitly
+  RedisPoolSizer(int minSize, int maxSize, LDLogger logger, long checkIntervalMillis) {
+    this.minSize = minSize;
+    this.maxSize = maxSize;
+    this.logger = logger;
+    this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread t = new Thread(r, "LaunchDarkly-Redis-pool-sizer");
+      t.setDaemon(true);
+      return t;
+    });
+    if (checkIntervalMillis > 0) {
+      executor.scheduleWithFixedDelay(this::check, checkIntervalMillis, checkIntervalMillis,
+          TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Starts managing a pool, setting its size to the minimum.
+   */
+  void add(ResizablePool pool) {
+    pool.setSize(minSize);
+    pools.add(new SizedPool(pool));
+  }
+
+  void check() {
+    for (SizedPool p: pools) {
+      try {
+        p.check();
+      } catch (RuntimeException e) {
+        logger.warn("Unexpected error when resizing Redis connection pool: {}", e.toString());
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+
+  private final class SizedPool {
+    private final ResizablePool pool;
+    private int underusedChecks = 0;
+
+    SizedPool(ResizablePool pool) {
+      this.pool = pool;
+    }
+
+    void check() {
+      int size = pool.getSize();
+      int active = pool.getActiveCount();
+      int waiters = pool.getWaiterCount();
+      long meanWait = pool.getMeanWaitMillis();
+
+      int newSize = size;
+      if (waiters > 0 || (active >= size && meanWait >= GROW_WAIT_THRESHOLD_MILLIS)) {
+        underusedChecks = 0;
+        newSize = Math.min(maxSize, size + Math.max(1, size / 2));
+      } else if (active < size / 2) {
+        if (++underusedChecks >= SHRINK_AFTER_CHECKS) {
+          underusedChecks = 0;
+          newSize = Math.max(minSize, size - Math.max(1, size / 4));
+        }
+      } else {
+        underusedChecks = 0;
+      }
+
+      if (newSize != size) {
+        logger.debug("Resizing Redis connection pool from {} to {} ({} active, {} waiting, mean wait {} ms)",
+            size, newSize, active, waiters, meanWait);
+        pool.setSize(newSize);
+        if (newSize > size && waiters > 0) {
+          // Callers that are already blocked waiting for a connection are not woken up by the
+          // size increase itself, only by a connection becoming available.
+          pool.addConnections(Math.min(waiters, newSize - size));
+        }
+      }
+    }
+  }
+
+  /**
+   * A {@link JedisPool} whose maximum size can be changed after it is created.
+   */
+  static final class ResizablePool extends JedisPool {
+    ResizablePool(
+        GenericObjectPoolConfig poolConfig,
+        String host,
+        int port,
+        int connectionTimeout,
+        int soTimeout,
+        String password,
+        int database,
+        boolean ssl
+        ) {
+      super(poolConfig,
+          host,
+          port,
+          connectionTimeout,
+          soTimeout,
+          password,
+          database,
+          null, // clientName
+          ssl,
+          null, // sslSocketFactory
+          null, // sslParameters
+          null  // hostnameVerifier
+      );
+    }
+
+    int getSize() {
+      return internalPool.getMaxTotal();
+    }
+
+    void setSize(int size) {
+      // Idle connections beyond maxIdle are closed when returned, so it must track the size.
+      internalPool.setMaxTotal(size);
+      internalPool.setMaxIdle(size);
+    }
+
+    void addConnections(int count) {
+      try {
+        for (int i = 0; i < count; i++) {
+          internalPool.addObject();
+        }
+      } catch (Exception e) {
+        throw new JedisException("Unable to add connections to pool", e);
+      }
+    }
+
+    int getActiveCount() {
+      return internalPool.getNumActive();
+    }
+
+    int getWaiterCount() {
+      return internalPool.getNumWaiters();
+    }
+
+    long getMeanWaitMillis() {
+      return internalPool.getMeanBorrowWaitTimeMillis();
+    }
+  }
+}
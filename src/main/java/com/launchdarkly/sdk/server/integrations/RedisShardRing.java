@@ -0,0 +1,62 @@
+package com.launchdarkly.sdk.server.integrations;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A consistent hash ring that maps keys to shards.
+ * <p>
+ * Each shard is placed on the ring at many points, derived from its ID, so that keys are spread
+ * evenly and adding or removing a shard only moves the keys that belong to that shard. Since the
+ * points depend only on shard IDs, every process that builds a ring from the same IDs routes keys
+ * the same way, regardless of the order the shards were listed in. The ring is immutable and safe
+ * for concurrent use.
+ *
+ * @param <T> the shard type
+ */
+final class RedisShardRing<T> {
+  private static final int POINTS_PER_SHARD = 160;
+
+  private final TreeMap<Long, T> ring = new TreeMap<>();
+  private final List<T> shards;
+
+  RedisShardRing(List<String> ids, List<T> shards) {
+    if (ids.isEmpty() || ids.size() != shards.size()) {
+      throw new IllegalArgumentException("must have one ID per shard, and at least one shard");
+    }
+    for (int i = 0; i < ids.size(); i++) {
+      for (int point = 0; point < POINTS_PER_SHARD; point++) {
+        ring.put(hash(ids.get(i) + "#" + point), shards.get(i));
+      }
+    }
+    this.shards = Collections.unmodifiableList(new ArrayList<>(shards));
+  }
+
+  T get(String key) {
+    Map.Entry<Long, T> e = ring.ceilingEntry(hash(key));
+    return e == null ? ring.firstEntry().getValue() : e.getValue();
+  }
+
+  List<T> getShards() {
+    return shards;
+  }
+
+  // 64-bit FNV-1a, followed by a finalizer step so that similar inputs are spread around the ring.
+  static long hash(String s) {
+    long h = 0xcbf29ce484222325L;
+    for (byte b: s.getBytes(StandardCharsets.UTF_8)) {
+      h ^= (b & 0xff);
+      h *= 0x100000001b3L;
+    }
+    h ^= (h >>> 33);
+    h *= 0xff51afd7ed558ccdL;
+    h ^= (h >>> 33);
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= (h >>> 33);
+    return h;
+  }
+}
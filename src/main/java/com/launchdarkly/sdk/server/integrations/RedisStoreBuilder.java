@@ -1,5 +1,6 @@
 package com.launchdarkly.sdk.server.integrations;
 
+import com.launchdarkly.logging.LDLogger;
 import com.launchdarkly.sdk.LDValue;
 import com.launchdarkly.sdk.server.Components;
 import com.launchdarkly.sdk.server.subsystems.BigSegmentStore;
@@ -10,6 +11,8 @@ import com.launchdarkly.sdk.server.subsystems.PersistentDataStore;
 
 import java.net.URI;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 import redis.clients.jedis.JedisPoolConfig;
 import redis.clients.jedis.Protocol;
@@ -70,6 +73,11 @@ public abstract class RedisStoreBuilder<T> implements ComponentConfigurer<T>, Di
    * The default value for {@link #prefix(String)}.
    */
   public static final String DEFAULT_PREFIX = "launchdarkly";
+
+  /**
+   * The default value for {@link #membershipCacheTime(Duration)}: 5 seconds.
+   */
+  public static final Duration DEFAULT_MEMBERSHIP_CACHE_TIME = Duration.ofSeconds(5);
   
   URI uri = DEFAULT_URI;
   String prefix = DEFAULT_PREFIX;
@@ -79,6 +87,18 @@ public abstract class RedisStoreBuilder<T> implements ComponentConfigurer<T>, Di
   String password = null;
   boolean tls = false;
   JedisPoolConfig poolConfig = null;
+  JedisPoolConfig writePoolConfig = null;
+  Duration hedgeDelay = null;
+  boolean hedgeDelayAdaptive = false;
+  URI hedgeUri = null;
+  int membershipCacheSize = 0;
+  Duration membershipCacheTime = DEFAULT_MEMBERSHIP_CACHE_TIME;
+  List<URI> shardUris = null;
+  boolean shardMetadataFromAll = false;
+  int warmUpConnections = 0;
+  int adaptivePoolMinSize = 0;
+  int adaptivePoolMaxSize = 0;
+  final RedisHedgedReadStats hedgedReadStats = new RedisHedgedReadStats();
 
   // These constructors are called only from Implementations
   RedisStoreBuilder() {
@@ -160,6 +180,214 @@ public abstract class RedisStoreBuilder<T> implements ComponentConfigurer<T>, Di
     return this;
   }
 
+  /**
+   * Optionally specifies a separate Jedis pool configuration to be used only for write operations.
+   * <p>
+   * By default, all operations borrow connections from a single pool, so a large {@code init} transaction
+   * or a burst of concurrent updates can hold enough connections to delay flag evaluations that need to
+   * read from Redis. If you set a write pool configuration, the store creates a second pool with these
+   * settings and uses it only for writes, leaving the pool configured with {@link #poolConfig(JedisPoolConfig)}
+   * for reads. Each pool then has its own maximum size and maximum wait time, so writes can never use up
+   * the connections that are available for reads.
+   * <p>
+   * Note that the total number of connections to Redis can then be as high as the sum of both pools' sizes.
+   * <p>
+   * This has no effect on a Big Segment store created with {@link Redis#bigSegmentStore()}, which only
+   * reads from Redis. A writer created with {@link Redis#bigSegmentWriter(RedisStoreBuilder, LDLogger)}
+   * uses this configuration, instead of {@link #poolConfig(JedisPoolConfig)}, for all of its connections.
+   *
+   * @param writePoolConfig the Jedis pool configuration for writes, or null to use the same pool for reads and writes
+   * @return the builder
+   */
+  public RedisStoreBuilder<T> writePoolConfig(JedisPoolConfig writePoolConfig) {
+    this.writePoolConfig = writePoolConfig;
+    return this;
+  }
+
+  /**
+   * Enables hedged reads, to reduce the effect of occasional slow Redis responses on evaluation latency.
+   * <p>
+   * When hedged reads are enabled, if a read request (such as getting a flag, getting all flags, or
+   * querying Big Segment membership) has not completed within the specified delay, the store sends
+   * the same request again, either to the host specified with {@link #hedgeUri(URI)} or, if none was
+   * specified, on a second connection to the same host. Whichever response arrives first is used, and
+   * the other one is discarded. Writes are never hedged.
+   * <p>
+   * Each read is then performed on a worker thread rather than the calling thread, and hedged requests
+   * add load to Redis, so the delay should normally be close to the high end of your usual latency.
+   * The number of worker threads is limited to the number of connections that the read pools can hold;
+   * if they are all busy, reads are performed on the calling thread without hedging. A hedged request
+   * to the main host is also not sent if the first request is still waiting for a connection, since it
+   * would have to wait for one too. See also {@link #hedgeDelayAdaptive(boolean)} and
+   * {@link #getHedgedReadStats()}.
+   *
+   * @param hedgeDelay how long to wait for a response before sending a second request, or null to
+   *   disable hedged reads (the default)
+   * @return the builder
+   */
+  public RedisStoreBuilder<T> hedgeDelay(Duration hedgeDelay) {
+    this.hedgeDelay = hedgeDelay;
+    return this;
+  }
+
+  /**
+   * Specifies whether the hedged read delay should track observed Redis latency.
+   * <p>
+   * If this is true, the delay that was set with {@link #hedgeDelay(Duration)} is used only until
+   * enough reads have completed; after that, the delay is the 95th percentile of recent read latency,
+   * so that roughly the slowest 5% of reads are hedged. This has no effect unless hedged reads are
+   * enabled.
+   *
+   * @param hedgeDelayAdaptive true to track the observed 95th percentile latency
+   * @return the builder
+   */
+  public RedisStoreBuilder<T> hedgeDelayAdaptive(boolean hedgeDelayAdaptive) {
+    this.hedgeDelayAdaptive = hedgeDelayAdaptive;
+    return this;
+  }
+
+  /**
+   * Specifies a Redis host, such as a replica, to send hedged read requests to.
+   * <p>
+   * The host must contain the same data as the host specified with {@link #uri(URI)}. It uses the same
+   * pool configuration, timeouts, and password and database overrides. If this is not set, hedged
+   * requests use a second connection to the main host. This has no effect unless hedged reads are
+   * enabled with {@link #hedgeDelay(Duration)}.
+   *
+   * @param hedgeUri the URI of the Redis host for hedged reads, or null to use the main host
+   * @return the builder
+   */
+  public RedisStoreBuilder<T> hedgeUri(URI hedgeUri) {
+    this.hedgeUri = hedgeUri;
+    return this;
+  }
+
+  /**
+   * Returns counters for the hedged reads performed by stores that are built from this builder.
+   * <p>
+   * The returned object is updated while the stores are in use, so you can keep a reference to it and
+   * read its current values at any time. If more than one store is built from the same builder, the
+   * counters include the reads of all of them. They remain at zero unless hedged reads are enabled with
+   * {@link #hedgeDelay(Duration)}.
+   *
+   * @return the hedged read counters
+   */
+  public RedisHedgedReadStats getHedgedReadStats() {
+    return hedgedReadStats;
+  }
+
+  /**
+   * Enables an in-memory cache of Big Segment membership in the Redis Big Segment store, and sets its
+   * maximum number of entries.
+   * <p>
+   * This applies only to a Big Segment store created with {@link Redis#bigSegmentStore()}; it has no
+   * effect on a data store created with {@link Redis#dataStore()}. Each entry holds the membership of
+   * one user hash; when the cache is full, the least recently used entry is
+   * evicted. The whole cache is cleared whenever the store sees that Big Segment data has been
+   * synchronized again. This is independent of the SDK's own context cache that is configured with
+   * {@link Components#bigSegments(ComponentConfigurer)}, which is keyed by context key rather than by
+   * user hash.
+   *
+   * @param membershipCacheSize the maximum number of cached entries, or zero to disable the cache (the default)
+   * @return the builder
+   */
+  public RedisStoreBuilder<T> membershipCacheSize(int membershipCacheSize) {
+    this.membershipCacheSize = membershipCacheSize;
+    return this;
+  }
+
+  /**
+   * Sets how long a Big Segment membership entry can stay in the cache that is enabled by
+   * {@link #membershipCacheSize(int)}. The default is {@link #DEFAULT_MEMBERSHIP_CACHE_TIME}. Like
+   * that option, this has no effect on a data store created with {@link Redis#dataStore()}.
+   *
+   * @param membershipCacheTime the maximum age of a cached entry, or null or zero for no limit
+   * @return the builder
+   */
+  public RedisStoreBuilder<T> membershipCacheTime(Duration membershipCacheTime) {
+    this.membershipCacheTime = membershipCacheTime;
+    return this;
+  }
+
+  /**
+   * Specifies a list of Redis hosts to distribute Big Segment membership data across.
+   * <p>
+   * This applies only to a Big Segment store created with {@link Redis#bigSegmentStore()}, and to a
+   * writer created with {@link Redis#bigSegmentWriter(RedisStoreBuilder, LDLogger)}; it has no effect on
+   * a data store created with {@link Redis#dataStore()}. Each user hash is assigned to one of the hosts
+   * by consistent hashing, so membership data and read load are divided among them. The assignment
+   * depends only on the host name, port, and database number of each URI; it does not depend on the
+   * order the URIs are listed in, or on passwords or other details of how they are written. The writer
+   * and all readers must be configured with the same set of hosts.
+   * <p>
+   * The host specified with {@link #uri(URI)} still holds the Big Segment sync time; it may also be
+   * one of the shards. All hosts use the same pool configuration, timeouts, password and database
+   * overrides, and key prefix. See also {@link #shardMetadataFromAll(boolean)}.
+   *
+   * @param shardUris the URIs of the Redis hosts, or null or empty to store all data on the main host
+   *   (the default)
+   * @return the builder
+   */
+  public RedisStoreBuilder<T> shardUris(List<URI> shardUris) {
+    this.shardUris = shardUris == null ? null : new ArrayList<>(shardUris);
+    return this;
+  }
+
+  /**
+   * Specifies whether the Big Segment sync time should be read from every shard.
+   * <p>
+   * By default, when {@link #shardUris(List)} is used, the sync time is read only from the host
+   * specified with {@link #uri(URI)}. If this is true, it is read from every shard, and the earliest
+   * value is used, so that the data is not considered up to date until every shard is; if any shard
+   * has no sync time, the store reports that it has no metadata. This has no effect unless shards
+   * are configured.
+   *
+   * @param shardMetadataFromAll true to use the earliest sync time of all shards
+   * @return the builder
+   */
+  public RedisStoreBuilder<T> shardMetadataFromAll(boolean shardMetadataFromAll) {
+    this.shardMetadataFromAll = shardMetadataFromAll;
+    return this;
+  }
+
+  /**
+   * Specifies a number of connections to open in advance when the store is created.
+   * <p>
+   * Normally, connections to Redis are only opened when they are first needed, so the first requests after
+   * the SDK starts have to wait for TCP connection, TLS negotiation, and authentication. If you set this
+   * option, the store opens and verifies this many connections in each of its connection pools before
+   * it is ready to use, limited by the maximum size and maximum idle count of the pool. If Redis cannot
+   * be reached, a warning is logged and connections are opened on demand as usual.
+   *
+   * @param warmUpConnections the number of connections to open in advance, or zero to open connections
+   *   only as needed (the default)
+   * @return the builder
+   */
+  public RedisStoreBuilder<T> warmUpConnections(int warmUpConnections) {
+    this.warmUpConnections = warmUpConnections;
+    return this;
+  }
+
+  /**
+   * Enables automatic sizing of connection pools within the specified bounds.
+   * <p>
+   * When this is enabled, each connection pool starts with {@code minSize} connections at most. About
+   * once a second, the store checks how many connections are in use and whether requests have had to
+   * wait for one; it grows the pool when they have, and shrinks it again after it has been underused for
+   * a while. This replaces the maximum total and maximum idle settings of the pool configurations; their
+   * other settings, such as the maximum wait time, still apply.
+   *
+   * @param minSize the smallest allowed pool size; values less than 1 are treated as 1
+   * @param maxSize the largest allowed pool size, or zero to disable automatic sizing (the default);
+   *   values less than {@code minSize} are treated as {@code minSize}
+   * @return the builder
+   */
+  public RedisStoreBuilder<T> adaptivePoolSize(int minSize, int maxSize) {
+    this.adaptivePoolMinSize = Math.max(1, minSize);
+    this.adaptivePoolMaxSize = maxSize <= 0 ? 0 : Math.max(this.adaptivePoolMinSize, maxSize);
+    return this;
+  }
+
   /**
    * Optional override which sets the connection timeout for the underlying Jedis pool which otherwise defaults to
    * {@link redis.clients.jedis.Protocol#DEFAULT_TIMEOUT} milliseconds.
@@ -4,56 +4,127 @@ import com.launchdarkly.logging.LDLogger;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.function.Function;
 
+import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
 import redis.clients.jedis.JedisPoolConfig;
 
 abstract class RedisStoreImplBase implements Closeable {
   protected final LDLogger logger;
   protected final JedisPool pool;
+  protected final JedisPool writePool;
+  protected final JedisPool hedgePool;
+  protected final RedisHedgedReader hedgedReader;
   protected final String prefix;
+  protected final RedisConnectionPools connections;
+  protected final JedisPoolConfig poolConfig;
 
-  protected RedisStoreImplBase(RedisStoreBuilder<?> builder, LDLogger logger) {
+  // A separate write pool is only created for a store that writes to Redis, if one was configured.
+  protected RedisStoreImplBase(RedisStoreBuilder<?> builder, LDLogger logger, boolean writes) {
     this.logger = logger;
+    boolean separateWritePool = writes && builder.writePoolConfig != null;
 
-    // There is no builder for JedisPool, just a large number of constructor overloads. Unfortunately,
-    // the overloads that accept a URI do not accept the other parameters we need to set, so we need
-    // to decompose the URI.
-    String host = builder.uri.getHost();
-    int port = builder.uri.getPort();
-    String password = builder.password == null ? RedisURIComponents.getPassword(builder.uri) : builder.password;
-    int database = builder.database == null ? RedisURIComponents.getDBIndex(builder.uri) : builder.database;
-    boolean tls = builder.tls || builder.uri.getScheme().equals("rediss");
-
-    String extra = tls ? " with TLS" : "";
-    if (password != null) {
-      extra = extra + (extra.isEmpty() ? " with" : " and") + " password";
+    String description = RedisConnectionPools.describeUri(builder, builder.uri);
+    if (separateWritePool) {
+      description = RedisConnectionPools.withFeature(description, "separate write pool");
+    }
+    if (builder.hedgeDelay != null) {
+      description = RedisConnectionPools.withFeature(description, "hedged reads");
+    }
+    if (builder.adaptivePoolMaxSize > 0) {
+      description = RedisConnectionPools.withFeature(description, "adaptive pool size");
     }
-    logger.info("Using Redis data store at {}:{}/{}{}", host, port, database, extra);
+    logger.info("Using Redis data store at {}", description);
 
-    JedisPoolConfig poolConfig = (builder.poolConfig != null) ? builder.poolConfig : new JedisPoolConfig();
+    this.connections = new RedisConnectionPools(builder, logger, true);
+    this.poolConfig = (builder.poolConfig != null) ? builder.poolConfig : new JedisPoolConfig();
 
     this.prefix = (builder.prefix == null || builder.prefix.isEmpty()) ?
         RedisStoreBuilder.DEFAULT_PREFIX :
         builder.prefix;
-    this.pool = new JedisPool(poolConfig,
-        host,
-        port,
-        (int) builder.connectTimeout.toMillis(),
-        (int) builder.socketTimeout.toMillis(),
-        password,
-        database,
-        null, // clientName
-        tls,
-        null, // sslSocketFactory
-        null, // sslParameters
-        null  // hostnameVerifier
-    );
+    try {
+      this.pool = connections.makePool(builder.uri, poolConfig);
+
+      // If no separate write pool was configured, writes share the same pool as reads, as they
+      // did before this option existed.
+      this.writePool = separateWritePool ? connections.makePool(builder.uri, builder.writePoolConfig) : pool;
+
+      if (builder.hedgeDelay == null) {
+        this.hedgePool = null;
+      } else if (builder.hedgeUri == null) {
+        // Hedge on a second connection to the same host.
+        this.hedgePool = pool;
+      } else {
+        logger.info("Using Redis host {} for hedged reads", RedisConnectionPools.describeUri(builder, builder.hedgeUri));
+        this.hedgePool = connections.makePool(builder.hedgeUri, poolConfig);
+      }
+    } catch (RuntimeException e) {
+      // The store will never be closed, so whatever was created so far must be cleaned up here.
+      connections.close();
+      throw e;
+    }
+
+    // Threads are only started once all of the pools exist, so that a failure above cannot leave
+    // them running.
+    connections.startPoolSizing();
+    if (builder.hedgeDelay == null) {
+      this.hedgedReader = null;
+    } else {
+      // There is no point in having more threads than there are connections for them to use.
+      int maxThreads = maxPoolSize(builder, poolConfig) * (hedgePool == pool ? 1 : 2);
+      this.hedgedReader = new RedisHedgedReader(builder.hedgeDelay, builder.hedgeDelayAdaptive, maxThreads,
+          builder.hedgedReadStats);
+    }
+  }
+
+  private static int maxPoolSize(RedisStoreBuilder<?> builder, JedisPoolConfig poolConfig) {
+    if (builder.adaptivePoolMaxSize > 0) {
+      return builder.adaptivePoolMaxSize;
+    }
+    return poolConfig.getMaxTotal() > 0 ? poolConfig.getMaxTotal() : RedisHedgedReader.DEFAULT_MAX_THREADS;
+  }
+
+  /**
+   * Borrows a connection from the read pool and runs the given read operation, hedging it against
+   * the hedge pool if hedged reads are enabled.
+   */
+  protected <T> T read(Function<Jedis, T> op) {
+    return read(pool, op);
+  }
+
+  /**
+   * Same as {@link #read(Function)}, but for a pool other than the main read pool, such as a shard.
+   * Hedged reads for such a pool use a second connection from the same pool.
+   */
+  protected <T> T read(JedisPool fromPool, Function<Jedis, T> op) {
+    if (hedgedReader != null) {
+      return hedgedReader.read(fromPool, fromPool == pool ? hedgePool : fromPool, op);
+    }
+    try (Jedis jedis = fromPool.getResource()) {
+      return op.apply(jedis);
+    }
   }
 
   @Override
   public void close() throws IOException {
     logger.info("Closing Redis store");
-    pool.destroy();
+    if (hedgedReader != null) {
+      RedisHedgedReadStats stats = hedgedReader.getStats();
+      logger.info("Hedged reads: {} issued, {} won, {} skipped", stats.getHedgesIssued(), stats.getHedgesWon(),
+          stats.getHedgesSkipped());
+    }
+    releaseResources();
+  }
+
+  /**
+   * Stops all threads and destroys all connection pools. A subclass whose constructor fails must call
+   * this before rethrowing the exception, since the store will never be closed.
+   */
+  protected void releaseResources() {
+    if (hedgedReader != null) {
+      hedgedReader.close();
+    }
+    connections.close();
   }
 }
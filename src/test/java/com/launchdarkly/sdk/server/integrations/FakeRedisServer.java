@@ -0,0 +1,635 @@
+package com.launchdarkly.sdk.server.integrations;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * A minimal in-process server that speaks the Redis protocol (RESP), for running tests without a real
+ * Redis instance and for reproducing slow or failing Redis behavior on demand.
+ * <p>
+ * It supports only the commands used by this library and its tests: PING, AUTH, SELECT, QUIT, GET, SET,
+ * DEL, EXISTS, KEYS, HGET, HGETALL, HSET, SMEMBERS, SADD, SREM, FLUSHDB, FLUSHALL, WATCH, UNWATCH, MULTI,
+ * EXEC, and DISCARD. All data is held in memory under one lock, so commands and transactions are atomic
+ * with respect to each other, as they are in Redis.
+ * <p>
+ * Faults can be configured for a single command name or, using {@link #ALL_COMMANDS}, for every command:
+ * a fixed added latency, a probability of replying with an error or of dropping the connection, or a
+ * one-off delay, error, or disconnection for the next N occurrences of a command. {@link #conflictNextExec(int)}
+ * makes EXEC fail as if a watched key had been modified, which simulates contention between writers.
+ */
+final class FakeRedisServer implements Closeable {
+  static final String ALL_COMMANDS = "*";
+
+  private static final Object NULL_ARRAY = new Object();
+  private static final Status OK = new Status("OK");
+  private static final Status QUEUED = new Status("QUEUED");
+
+  private final ServerSocket serverSocket;
+  private final Set<Socket> sockets = ConcurrentHashMap.newKeySet();
+  private final Object lock = new Object();
+  private final Map<Integer, Map<String, Object>> databases = new HashMap<>();
+  private final Map<Integer, Map<String, Long>> keyVersions = new HashMap<>();
+  private long versionCounter = 0;
+  private final Map<String, Fault> faults = new ConcurrentHashMap<>();
+  private final Map<String, AtomicLong> commandCounts = new ConcurrentHashMap<>();
+  private final AtomicInteger execConflicts = new AtomicInteger();
+  private volatile boolean closed = false;
+
+  FakeRedisServer() throws IOException {
+    serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+    Thread acceptThread = new Thread(this::acceptLoop, "FakeRedisServer-accept");
+    acceptThread.setDaemon(true);
+    acceptThread.start();
+  }
+
+  URI getUri() {
+    return URI.create("redis://localhost:" + serverSocket.getLocalPort());
+  }
+
+  int getPort() {
+    return serverSocket.getLocalPort();
+  }
+
+  /**
+   * Adds a fixed delay before every occurrence of a command is processed.
+   */
+  FakeRedisServer latency(String command, Duration latency) {
+    fault(command).latencyNanos = latency.toNanos();
+    return this;
+  }
+
+  /**
+   * Makes each occurrence of a command fail with an error reply, with the given probability.
+   */
+  FakeRedisServer errorRate(String command, double probability) {
+    fault(command).errorRate = probability;
+    return this;
+  }
+
+  /**
+   * Makes each occurrence of a command close the connection without replying, with the given probability.
+   */
+  FakeRedisServer disconnectRate(String command, double probability) {
+    fault(command).disconnectRate = probability;
+    return this;
+  }
+
+  /**
+   * Adds a delay before the next {@code times} occurrences of a command, in addition to any fixed latency.
+   */
+  FakeRedisServer delayNext(String command, int times, Duration delay) {
+    Fault f = fault(command);
+    f.delayNextNanos = delay.toNanos();
+    f.delayNext.set(times);
+    return this;
+  }
+
+  /**
+   * Makes the next {@code times} occurrences of a command fail with an error reply.
+   */
+  FakeRedisServer failNext(String command, int times) {
+    fault(command).failNext.set(times);
+    return this;
+  }
+
+  /**
+   * Makes the next {@code times} occurrences of a command close the connection without replying.
+   */
+  FakeRedisServer disconnectNext(String command, int times) {
+    fault(command).disconnectNext.set(times);
+    return this;
+  }
+
+  /**
+   * Makes the next {@code times} EXEC commands abort as if a watched key had been modified.
+   */
+  FakeRedisServer conflictNextExec(int times) {
+    execConflicts.set(times);
+    return this;
+  }
+
+  void resetFaults() {
+    faults.clear();
+    execConflicts.set(0);
+  }
+
+  int getConnectionCount() {
+    return sockets.size();
+  }
+
+  long getCommandCount(String command) {
+    AtomicLong count = commandCounts.get(command.toUpperCase(Locale.ROOT));
+    return count == null ? 0 : count.get();
+  }
+
+  void clear() {
+    synchronized (lock) {
+      for (int db: new ArrayList<>(databases.keySet())) {
+        flushDatabase(db);
+      }
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    closed = true;
+    serverSocket.close();
+    for (Socket s: sockets) {
+      s.close();
+    }
+  }
+
+  private Fault fault(String command) {
+    String name = command == null ? ALL_COMMANDS : command.toUpperCase(Locale.ROOT);
+    return faults.computeIfAbsent(name, k -> new Fault());
+  }
+
+  private void acceptLoop() {
+    while (!closed) {
+      try {
+        Socket socket = serverSocket.accept();
+        sockets.add(socket);
+        Thread t = new Thread(() -> serve(socket), "FakeRedisServer-connection");
+        t.setDaemon(true);
+        t.start();
+      } catch (IOException e) {
+        return; // server socket was closed
+      }
+    }
+  }
+
+  private void serve(Socket socket) {
+    Connection conn = new Connection();
+    try (Socket s = socket) {
+      InputStream in = new BufferedInputStream(s.getInputStream());
+      OutputStream out = new BufferedOutputStream(s.getOutputStream());
+      while (true) {
+        List<String> args = readCommand(in);
+        if (args == null) {
+          return;
+        }
+        String command = args.get(0).toUpperCase(Locale.ROOT);
+        commandCounts.computeIfAbsent(command, k -> new AtomicLong()).incrementAndGet();
+
+        FaultAction action = applyFaults(command);
+        if (action == FaultAction.DISCONNECT) {
+          return;
+        }
+        if (action == FaultAction.ERROR && (command.equals("EXEC") || command.equals("DISCARD"))) {
+          // A failed EXEC still ends the transaction, as it would in Redis.
+          conn.inMulti = false;
+          conn.queued.clear();
+          conn.watched.clear();
+        }
+        Object reply = action == FaultAction.ERROR ? new ErrorReply("ERR injected failure") :
+          handle(conn, command, args);
+        writeReply(out, reply);
+        out.flush();
+        if (command.equals("QUIT")) {
+          return;
+        }
+      }
+    } catch (IOException e) {
+      // client went away
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      sockets.remove(socket);
+    }
+  }
+
+  private FaultAction applyFaults(String command) throws InterruptedException {
+    long delay = 0;
+    FaultAction action = FaultAction.NONE;
+    for (Fault f: new Fault[] { faults.get(ALL_COMMANDS), faults.get(command) }) {
+      if (f == null) {
+        continue;
+      }
+      delay += f.latencyNanos;
+      if (takeOne(f.delayNext)) {
+        delay += f.delayNextNanos;
+      }
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+      if (takeOne(f.disconnectNext) || random.nextDouble() < f.disconnectRate) {
+        action = FaultAction.DISCONNECT;
+      } else if (action == FaultAction.NONE && (takeOne(f.failNext) || random.nextDouble() < f.errorRate)) {
+        action = FaultAction.ERROR;
+      }
+    }
+    if (delay > 0) {
+      Thread.sleep(delay / 1_000_000, (int) (delay % 1_000_000));
+    }
+    return action;
+  }
+
+  private static boolean takeOne(AtomicInteger counter) {
+    return counter.getAndUpdate(n -> n > 0 ? n - 1 : 0) > 0;
+  }
+
+  private Object handle(Connection conn, String command, List<String> args) {
+    if (conn.inMulti && !command.equals("EXEC") && !command.equals("DISCARD")) {
+      conn.queued.add(args);
+      return QUEUED;
+    }
+    switch (command) {
+    case "MULTI":
+      conn.inMulti = true;
+      conn.queued.clear();
+      return OK;
+    case "DISCARD":
+      conn.inMulti = false;
+      conn.queued.clear();
+      conn.watched.clear();
+      return OK;
+    case "WATCH":
+      synchronized (lock) {
+        for (String key: args.subList(1, args.size())) {
+          conn.watched.put(new WatchedKey(conn.db, key), version(conn.db, key));
+        }
+      }
+      return OK;
+    case "UNWATCH":
+      conn.watched.clear();
+      return OK;
+    case "EXEC":
+      return exec(conn);
+    case "SELECT":
+      conn.db = Integer.parseInt(args.get(1));
+      return OK;
+    case "QUIT":
+      return OK;
+    default:
+      synchronized (lock) {
+        return execute(conn.db, command, args);
+      }
+    }
+  }
+
+  private Object exec(Connection conn) {
+    if (!conn.inMulti) {
+      return new ErrorReply("ERR EXEC without MULTI");
+    }
+    conn.inMulti = false;
+    try {
+      synchronized (lock) {
+        boolean conflict = takeOne(execConflicts);
+        for (Map.Entry<WatchedKey, Long> e: conn.watched.entrySet()) {
+          if (version(e.getKey().db, e.getKey().key) != e.getValue()) {
+            conflict = true;
+          }
+        }
+        if (conflict) {
+          return NULL_ARRAY;
+        }
+        List<Object> results = new ArrayList<>();
+        for (List<String> queuedArgs: conn.queued) {
+          results.add(execute(conn.db, queuedArgs.get(0).toUpperCase(Locale.ROOT), queuedArgs));
+        }
+        return results;
+      }
+    } finally {
+      conn.queued.clear();
+      conn.watched.clear();
+    }
+  }
+
+  // Called with lock held.
+  private Object execute(int db, String command, List<String> args) {
+    Map<String, Object> data = databases.computeIfAbsent(db, k -> new HashMap<>());
+    try {
+      switch (command) {
+      case "PING":
+        return args.size() > 1 ? args.get(1) : new Status("PONG");
+      case "AUTH":
+        return OK;
+      case "GET":
+        return typed(data.get(args.get(1)), String.class);
+      case "SET":
+        data.put(args.get(1), args.get(2));
+        touch(db, args.get(1));
+        return OK;
+      case "DEL": {
+        long count = 0;
+        for (String key: args.subList(1, args.size())) {
+          if (data.remove(key) != null) {
+            touch(db, key);
+            count++;
+          }
+        }
+        return count;
+      }
+      case "EXISTS": {
+        long count = 0;
+        for (String key: args.subList(1, args.size())) {
+          if (data.containsKey(key)) {
+            count++;
+          }
+        }
+        return count;
+      }
+      case "KEYS": {
+        Pattern pattern = globToRegex(args.get(1));
+        List<Object> keys = new ArrayList<>();
+        for (String key: data.keySet()) {
+          if (pattern.matcher(key).matches()) {
+            keys.add(key);
+          }
+        }
+        return keys;
+      }
+      case "HGET": {
+        Map<String, String> hash = hash(data, args.get(1), false);
+        return hash == null ? null : hash.get(args.get(2));
+      }
+      case "HGETALL": {
+        Map<String, String> hash = hash(data, args.get(1), false);
+        List<Object> result = new ArrayList<>();
+        if (hash != null) {
+          for (Map.Entry<String, String> e: hash.entrySet()) {
+            result.add(e.getKey());
+            result.add(e.getValue());
+          }
+        }
+        return result;
+      }
+      case "HSET": {
+        Map<String, String> hash = hash(data, args.get(1), true);
+        long added = 0;
+        for (int i = 2; i + 1 < args.size(); i += 2) {
+          if (hash.put(args.get(i), args.get(i + 1)) == null) {
+            added++;
+          }
+        }
+        touch(db, args.get(1));
+        return added;
+      }
+      case "SMEMBERS": {
+        Set<String> set = set(data, args.get(1), false);
+        return set == null ? new ArrayList<Object>() : new ArrayList<Object>(set);
+      }
+      case "SADD": {
+        Set<String> set = set(data, args.get(1), true);
+        long added = 0;
+        for (String member: args.subList(2, args.size())) {
+          if (set.add(member)) {
+            added++;
+          }
+        }
+        touch(db, args.get(1));
+        return added;
+      }
+      case "SREM": {
+        Set<String> set = set(data, args.get(1), false);
+        long removed = 0;
+        if (set != null) {
+          for (String member: args.subList(2, args.size())) {
+            if (set.remove(member)) {
+              removed++;
+            }
+          }
+          if (set.isEmpty()) {
+            data.remove(args.get(1));
+          }
+          touch(db, args.get(1));
+        }
+        return removed;
+      }
+      case "FLUSHDB":
+        flushDatabase(db);
+        return OK;
+      case "FLUSHALL":
+        for (int d: new ArrayList<>(databases.keySet())) {
+          flushDatabase(d);
+        }
+        return OK;
+      default:
+        return new ErrorReply("ERR unknown command '" + command + "'");
+      }
+    } catch (WrongTypeException e) {
+      return new ErrorReply("WRONGTYPE Operation against a key holding the wrong kind of value");
+    } catch (IndexOutOfBoundsException | NumberFormatException e) {
+      return new ErrorReply("ERR wrong number of arguments for '" + command + "' command");
+    }
+  }
+
+  private void flushDatabase(int db) {
+    Map<String, Object> data = databases.get(db);
+    if (data != null) {
+      for (String key: data.keySet()) {
+        touch(db, key);
+      }
+      data.clear();
+    }
+  }
+
+  private long version(int db, String key) {
+    Map<String, Long> versions = keyVersions.get(db);
+    Long v = versions == null ? null : versions.get(key);
+    return v == null ? 0 : v;
+  }
+
+  private void touch(int db, String key) {
+    keyVersions.computeIfAbsent(db, k -> new HashMap<>()).put(key, ++versionCounter);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Map<String, String> hash(Map<String, Object> data, String key, boolean create) {
+    Object value = data.get(key);
+    if (value == null && create) {
+      value = new LinkedHashMap<String, String>();
+      data.put(key, value);
+    }
+    return typed(value, Map.class);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Set<String> set(Map<String, Object> data, String key, boolean create) {
+    Object value = data.get(key);
+    if (value == null && create) {
+      value = new HashSet<String>();
+      data.put(key, value);
+    }
+    return typed(value, Set.class);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T typed(Object value, Class<?> type) {
+    if (value != null && !type.isInstance(value)) {
+      throw new WrongTypeException();
+    }
+    return (T) value;
+  }
+
+  private static Pattern globToRegex(String glob) {
+    StringBuilder regex = new StringBuilder();
+    for (char c: glob.toCharArray()) {
+      if (c == '*') {
+        regex.append(".*");
+      } else if (c == '?') {
+        regex.append('.');
+      } else {
+        regex.append(Pattern.quote(String.valueOf(c)));
+      }
+    }
+    return Pattern.compile(regex.toString(), Pattern.DOTALL);
+  }
+
+  private static List<String> readCommand(InputStream in) throws IOException {
+    int first = in.read();
+    if (first == -1) {
+      return null;
+    }
+    if (first != '*') {
+      throw new IOException("expected a RESP array");
+    }
+    int count = Integer.parseInt(readLine(in));
+    List<String> args = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      if (in.read() != '$') {
+        throw new IOException("expected a RESP bulk string");
+      }
+      int length = Integer.parseInt(readLine(in));
+      byte[] bytes = new byte[length];
+      int offset = 0;
+      while (offset < length) {
+        int n = in.read(bytes, offset, length - offset);
+        if (n == -1) {
+          throw new EOFException();
+        }
+        offset += n;
+      }
+      readLine(in); // trailing CRLF
+      args.add(new String(bytes, StandardCharsets.UTF_8));
+    }
+    return args;
+  }
+
+  private static String readLine(InputStream in) throws IOException {
+    StringBuilder sb = new StringBuilder();
+    while (true) {
+      int c = in.read();
+      if (c == -1) {
+        throw new EOFException();
+      }
+      if (c == '\r') {
+        in.read(); // '\n'
+        return sb.toString();
+      }
+      sb.append((char) c);
+    }
+  }
+
+  private static void writeReply(OutputStream out, Object reply) throws IOException {
+    if (reply == null) {
+      writeAscii(out, "$-1\r\n");
+    } else if (reply == NULL_ARRAY) {
+      writeAscii(out, "*-1\r\n");
+    } else if (reply instanceof Status) {
+      writeAscii(out, "+" + ((Status) reply).message + "\r\n");
+    } else if (reply instanceof ErrorReply) {
+      writeAscii(out, "-" + ((ErrorReply) reply).message + "\r\n");
+    } else if (reply instanceof Long) {
+      writeAscii(out, ":" + reply + "\r\n");
+    } else if (reply instanceof String) {
+      byte[] bytes = ((String) reply).getBytes(StandardCharsets.UTF_8);
+      writeAscii(out, "$" + bytes.length + "\r\n");
+      out.write(bytes);
+      writeAscii(out, "\r\n");
+    } else if (reply instanceof List) {
+      List<?> items = (List<?>) reply;
+      writeAscii(out, "*" + items.size() + "\r\n");
+      for (Object item: items) {
+        writeReply(out, item);
+      }
+    } else {
+      throw new IllegalArgumentException("unsupported reply type: " + reply.getClass());
+    }
+  }
+
+  private static void writeAscii(OutputStream out, String s) throws IOException {
+    out.write(s.getBytes(StandardCharsets.US_ASCII));
+  }
+
+  private enum FaultAction { NONE, ERROR, DISCONNECT }
+
+  private static final class Fault {
+    volatile long latencyNanos;
+    volatile double errorRate;
+    volatile double disconnectRate;
+    volatile long delayNextNanos;
+    final AtomicInteger delayNext = new AtomicInteger();
+    final AtomicInteger failNext = new AtomicInteger();
+    final AtomicInteger disconnectNext = new AtomicInteger();
+  }
+
+  private static final class Connection {
+    int db = 0;
+    boolean inMulti = false;
+    final List<List<String>> queued = new ArrayList<>();
+    final Map<WatchedKey, Long> watched = new HashMap<>();
+  }
+
+  private static final class WatchedKey {
+    final int db;
+    final String key;
+
+    WatchedKey(int db, String key) {
+      this.db = db;
+      this.key = key;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof WatchedKey && ((WatchedKey) o).db == db && ((WatchedKey) o).key.equals(key);
+    }
+
+    @Override
+    public int hashCode() {
+      return db * 31 + key.hashCode();
+    }
+  }
+
+  private static final class Status {
+    final String message;
+
+    Status(String message) {
+      this.message = message;
+    }
+  }
+
+  private static final class ErrorReply {
+    final String message;
+
+    ErrorReply(String message) {
+      this.message = message;
+    }
+  }
+
+  @SuppressWarnings("serial")
+  private static final class WrongTypeException extends RuntimeException {
+  }
+}
@@ -0,0 +1,63 @@
+package com.launchdarkly.sdk.server.integrations;
+
+import com.launchdarkly.sdk.server.subsystems.BigSegmentStore;
+import com.launchdarkly.sdk.server.subsystems.BigSegmentStoreTypes;
+import com.launchdarkly.sdk.server.subsystems.ComponentConfigurer;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+
+import redis.clients.jedis.Jedis;
+
+/**
+ * Runs the standard Big Segment store tests against {@link FakeRedisServer}, so they do not need a real Redis.
+ */
+@SuppressWarnings("javadoc")
+public class RedisBigSegmentStoreImplFakeServerTest extends BigSegmentStoreTestBase {
+  private static FakeRedisServer server;
+
+  @BeforeClass
+  public static void startServer() throws Exception {
+    server = new FakeRedisServer();
+  }
+
+  @AfterClass
+  public static void stopServer() throws Exception {
+    server.close();
+  }
+
+  @Override
+  protected ComponentConfigurer<BigSegmentStore> makeStore(String prefix) {
+    return Redis.bigSegmentStore().uri(server.getUri()).prefix(prefix);
+  }
+
+  @Override
+  protected void clearData(String prefix) {
+    server.clear();
+  }
+
+  @Override
+  protected void setMetadata(String prefix, BigSegmentStoreTypes.StoreMetadata storeMetadata) {
+    try (Jedis client = new Jedis("localhost", server.getPort())) {
+      client.set(prefix + ":big_segments_synchronized_on",
+          storeMetadata != null ? Long.toString(storeMetadata.getLastUpToDate()) : "");
+    }
+  }
+
+  @Override
+  protected void setSegments(String prefix,
+                             String userHashKey,
+                             Iterable<String> includedSegmentRefs,
+                             Iterable<String> excludedSegmentRefs) {
+    try (Jedis client = new Jedis("localhost", server.getPort())) {
+      String includeKey = prefix + ":big_segment_include:" + userHashKey;
+      String excludeKey = prefix + ":big_segment_exclude:" + userHashKey;
+      for (String includedSegmentRef : includedSegmentRefs) {
+        client.sadd(includeKey, includedSegmentRef);
+      }
+      for (String excludedSegmentRef : excludedSegmentRefs) {
+        client.sadd(excludeKey, excludedSegmentRef);
+      }
+    }
+  }
+}
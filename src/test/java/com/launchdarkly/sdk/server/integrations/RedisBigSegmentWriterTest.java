@@ -0,0 +1,147 @@
+package com.launchdarkly.sdk.server.integrations;
+
+import com.launchdarkly.logging.LDLogger;
+import com.launchdarkly.sdk.server.integrations.RedisBigSegmentWriter.Change;
+import com.launchdarkly.sdk.server.integrations.RedisBigSegmentWriter.Result;
+import com.launchdarkly.sdk.server.subsystems.BigSegmentStore;
+import com.launchdarkly.sdk.server.subsystems.BigSegmentStoreTypes.Membership;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.exceptions.JedisDataException;
+
+/**
+ * Tests of {@link RedisBigSegmentWriter}, using {@link FakeRedisServer}. Sharding is tested with
+ * separate server instances, so that each shard really is a separate host.
+ */
+@SuppressWarnings("javadoc")
+public class RedisBigSegmentWriterTest {
+  private static final String PREFIX = "writer-test";
+
+  private FakeRedisServer server;
+  private List<FakeRedisServer> shardServers;
+
+  @Before
+  public void setUp() throws Exception {
+    server = new FakeRedisServer();
+    shardServers = Arrays.asList(new FakeRedisServer(), new FakeRedisServer());
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    server.close();
+    for (FakeRedisServer s: shardServers) {
+      s.close();
+    }
+  }
+
+  private RedisStoreBuilder<BigSegmentStore> config() {
+    return Redis.bigSegmentStore().uri(server.getUri()).prefix(PREFIX);
+  }
+
+  @Test
+  public void changesAreWrittenInBatchesAndSyncTimeIsUpdated() throws Exception {
+    List<Change> changes = new ArrayList<>();
+    for (int i = 0; i < 25; i++) {
+      changes.add(Change.addIncluded("user" + i, "seg1.g1"));
+    }
+    changes.add(Change.addExcluded("user0", "seg2.g1"));
+
+    try (RedisBigSegmentWriter writer = Redis.bigSegmentWriter(config(), LDLogger.none());
+         RedisBigSegmentStoreImpl store = new RedisBigSegmentStoreImpl(config(), LDLogger.none())) {
+      Result result = writer.applyChanges(changes, 1000, 10);
+      assertEquals(26, result.getChangeCount());
+      assertEquals(3, result.getBatchCount());
+
+      Membership membership = store.getMembership("user0");
+      assertEquals(Boolean.TRUE, membership.checkMembership("seg1.g1"));
+      assertEquals(Boolean.FALSE, membership.checkMembership("seg2.g1"));
+      assertEquals(Boolean.TRUE, store.getMembership("user24").checkMembership("seg1.g1"));
+      assertEquals(1000, store.getMetadata().getLastUpToDate());
+    }
+  }
+
+  @Test
+  public void incrementalChangesCanRemoveMembership() throws Exception {
+    try (RedisBigSegmentWriter writer = Redis.bigSegmentWriter(config(), LDLogger.none());
+         RedisBigSegmentStoreImpl store = new RedisBigSegmentStoreImpl(config(), LDLogger.none())) {
+      writer.applyChanges(Arrays.asList(
+          Change.addIncluded("user1", "seg1.g1"),
+          Change.addIncluded("user1", "seg2.g1")
+          ), 1000);
+      writer.applyChanges(Arrays.asList(Change.removeIncluded("user1", "seg1.g1")), 2000);
+
+      Membership membership = store.getMembership("user1");
+      assertNull(membership.checkMembership("seg1.g1"));
+      assertEquals(Boolean.TRUE, membership.checkMembership("seg2.g1"));
+      assertEquals(2000, store.getMetadata().getLastUpToDate());
+    }
+  }
+
+  @Test
+  public void failedCommandIsThrownAndSyncTimeIsNotUpdated() throws Exception {
+    try (RedisBigSegmentWriter writer = Redis.bigSegmentWriter(config(), LDLogger.none());
+         Jedis client = new Jedis("localhost", server.getPort())) {
+      writer.applyChanges(Arrays.asList(Change.addIncluded("user1", "seg1.g1")), 1000);
+
+      server.failNext("SADD", 1);
+      try {
+        writer.applyChanges(Arrays.asList(
+            Change.addIncluded("user2", "seg1.g1"),
+            Change.addIncluded("user3", "seg1.g1")
+            ), 2000);
+        fail("expected exception");
+      } catch (JedisDataException e) {
+        // expected
+      }
+
+      assertEquals("1000", client.get(PREFIX + ":big_segments_synchronized_on"));
+    }
+  }
+
+  @Test
+  public void shardedChangesAreSpreadAcrossShardsAndReadBack() throws Exception {
+    List<Change> changes = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      changes.add(Change.addIncluded("user" + i, "seg1.g1"));
+    }
+    List<URI> shardUris = new ArrayList<>();
+    for (FakeRedisServer s: shardServers) {
+      shardUris.add(s.getUri());
+    }
+    RedisStoreBuilder<BigSegmentStore> shardedConfig = config().shardUris(shardUris).shardMetadataFromAll(true);
+
+    try (RedisBigSegmentWriter writer = Redis.bigSegmentWriter(shardedConfig, LDLogger.none());
+         RedisBigSegmentStoreImpl store = new RedisBigSegmentStoreImpl(shardedConfig, LDLogger.none())) {
+      writer.applyChanges(changes, 1000, 30);
+
+      for (int i = 0; i < 100; i++) {
+        assertEquals(Boolean.TRUE, store.getMembership("user" + i).checkMembership("seg1.g1"));
+      }
+      assertEquals(1000, store.getMetadata().getLastUpToDate());
+    }
+
+    for (FakeRedisServer s: shardServers) {
+      try (Jedis client = new Jedis("localhost", s.getPort())) {
+        int count = client.keys(PREFIX + ":big_segment_include:*").size();
+        assertTrue("shard on port " + s.getPort() + " has " + count + " users", count > 0 && count < 100);
+      }
+    }
+    try (Jedis client = new Jedis("localhost", server.getPort())) {
+      assertEquals(0, client.keys(PREFIX + ":big_segment_include:*").size());
+    }
+  }
+}
@@ -0,0 +1,214 @@
+package com.launchdarkly.sdk.server.integrations;
+
+import com.launchdarkly.logging.LDLogger;
+import com.launchdarkly.sdk.server.subsystems.BigSegmentStore;
+import com.launchdarkly.sdk.server.subsystems.PersistentDataStore;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.launchdarkly.sdk.server.integrations.RedisTestItems.KIND;
+import static com.launchdarkly.sdk.server.integrations.RedisTestItems.dataSet;
+import static com.launchdarkly.sdk.server.integrations.RedisTestItems.item;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.exceptions.JedisException;
+
+/**
+ * Tests of the separate write pool, connection warm-up, and adaptive pool sizing, using {@link FakeRedisServer}.
+ */
+@SuppressWarnings("javadoc")
+public class RedisConnectionPoolTest {
+  private FakeRedisServer server;
+
+  @Before
+  public void setUp() throws Exception {
+    server = new FakeRedisServer();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    server.close();
+  }
+
+  @Test
+  public void readsDoNotWaitForWriteConnections() throws Exception {
+    JedisPoolConfig writePoolConfig = new JedisPoolConfig();
+    writePoolConfig.setMaxTotal(1);
+    writePoolConfig.setMaxWaitMillis(100);
+    RedisStoreBuilder<PersistentDataStore> config = Redis.dataStore().uri(server.getUri())
+        .writePoolConfig(writePoolConfig);
+    try (RedisDataStoreImpl store = new RedisDataStoreImpl(config, LDLogger.none())) {
+      store.init(dataSet(1));
+
+      try (Jedis heldWriteConnection = store.writePool.getResource()) {
+        assertEquals("1:value0", store.get(KIND, "key0").getSerializedItem());
+        assertEquals("key0", store.getAll(KIND).getItems().iterator().next().getKey());
+        assertTrue(store.isInitialized());
+        try {
+          store.upsert(KIND, "key0", item(2, "updated"));
+          fail("expected upsert to time out waiting for a write connection");
+        } catch (JedisException e) {
+          // expected
+        }
+        try {
+          store.init(dataSet(1));
+          fail("expected init to time out waiting for a write connection");
+        } catch (JedisException e) {
+          // expected
+        }
+      }
+
+      assertTrue(store.upsert(KIND, "key0", item(2, "updated")));
+      assertEquals("2:updated", store.get(KIND, "key0").getSerializedItem());
+    }
+  }
+
+  @Test
+  public void bigSegmentStoreDoesNotCreateWritePool() throws Exception {
+    RedisStoreBuilder<BigSegmentStore> config = Redis.bigSegmentStore().uri(server.getUri())
+        .writePoolConfig(new JedisPoolConfig())
+        .warmUpConnections(1);
+    try (RedisBigSegmentStoreImpl store = new RedisBigSegmentStoreImpl(config, LDLogger.none())) {
+      assertSame(store.pool, store.writePool);
+      assertEquals(1, server.getCommandCount("PING"));
+    }
+  }
+
+  @Test
+  public void connectionsAreOpenedInAdvance() throws Exception {
+    RedisStoreBuilder<PersistentDataStore> config = Redis.dataStore().uri(server.getUri()).warmUpConnections(3);
+    try (RedisDataStoreImpl store = new RedisDataStoreImpl(config, LDLogger.none())) {
+      assertEquals(3, server.getCommandCount("PING"));
+    }
+  }
+
+  @Test
+  public void warmUpIsLimitedByPoolSize() throws Exception {
+    JedisPoolConfig poolConfig = new JedisPoolConfig();
+    poolConfig.setMaxTotal(2);
+    try (RedisDataStoreImpl store = new RedisDataStoreImpl(
+        Redis.dataStore().uri(server.getUri()).poolConfig(poolConfig).warmUpConnections(5), LDLogger.none())) {
+      assertEquals(2, server.getCommandCount("PING"));
+    }
+  }
+
+  @Test
+  public void warmUpFailureIsNotFatal() throws Exception {
+    int unusedPort = server.getPort();
+    server.close();
+    RedisStoreBuilder<PersistentDataStore> config = Redis.dataStore()
+        .uri(URI.create("redis://localhost:" + unusedPort))
+        .connectTimeout(Duration.ofMillis(100))
+        .warmUpConnections(2);
+    try (RedisDataStoreImpl store = new RedisDataStoreImpl(config, LDLogger.none())) {
+      assertFalse(store.isStoreAvailable());
+    }
+  }
+
+  @Test
+  public void failedDataStoreConstructionDoesNotLeakPoolsOrThreads() throws Exception {
+    int sizerThreadsBefore = countThreads("LaunchDarkly-Redis-pool-sizer");
+    RedisStoreBuilder<PersistentDataStore> config = Redis.dataStore().uri(server.getUri())
+        .warmUpConnections(1)
+        .adaptivePoolSize(1, 4)
+        .hedgeDelay(Duration.ofMillis(10))
+        .hedgeUri(URI.create("redis://localhost:" + server.getPort() + "/not-a-number"));
+    try {
+      new RedisDataStoreImpl(config, LDLogger.none());
+      fail("expected exception");
+    } catch (NumberFormatException e) {
+      // expected
+    }
+    assertConnectionsClosed();
+    assertTrue(countThreads("LaunchDarkly-Redis-pool-sizer") <= sizerThreadsBefore);
+  }
+
+  @Test
+  public void failedBigSegmentStoreConstructionDoesNotLeakPoolsOrThreads() throws Exception {
+    int sizerThreadsBefore = countThreads("LaunchDarkly-Redis-pool-sizer");
+    RedisStoreBuilder<BigSegmentStore> config = Redis.bigSegmentStore().uri(server.getUri())
+        .warmUpConnections(1)
+        .adaptivePoolSize(1, 4)
+        .shardUris(Arrays.asList(server.getUri(), URI.create("redis://localhost:" + server.getPort() + "/not-a-number")));
+    try {
+      new RedisBigSegmentStoreImpl(config, LDLogger.none());
+      fail("expected exception");
+    } catch (NumberFormatException e) {
+      // expected
+    }
+    assertConnectionsClosed();
+    long deadline = System.currentTimeMillis() + 1000;
+    while (countThreads("LaunchDarkly-Redis-pool-sizer") > sizerThreadsBefore && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10); // the pool sizer was already running, and stops asynchronously
+    }
+    assertTrue(countThreads("LaunchDarkly-Redis-pool-sizer") <= sizerThreadsBefore);
+  }
+
+  private void assertConnectionsClosed() throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 1000;
+    while (server.getConnectionCount() > 0 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(0, server.getConnectionCount());
+  }
+
+  private static int countThreads(String name) {
+    int count = 0;
+    for (Thread t: Thread.getAllStackTraces().keySet()) {
+      if (t.getName().equals(name) && t.isAlive()) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Test
+  public void poolGrowsWhenCallersWaitAndShrinksWhenUnderused() throws Exception {
+    RedisPoolSizer.ResizablePool pool = new RedisPoolSizer.ResizablePool(new JedisPoolConfig(),
+        "localhost", server.getPort(), 2000, 2000, null, 0, false);
+    try (RedisPoolSizer sizer = new RedisPoolSizer(2, 8, LDLogger.none(), 0)) {
+      sizer.add(pool);
+      assertEquals(2, pool.getSize());
+
+      Jedis c1 = pool.getResource(), c2 = pool.getResource();
+      CountDownLatch gotThird = new CountDownLatch(1);
+      Thread waiter = new Thread(() -> {
+        try (Jedis c3 = pool.getResource()) {
+          gotThird.countDown();
+        }
+      });
+      waiter.start();
+      while (pool.getWaiterCount() == 0) {
+        Thread.sleep(1);
+      }
+
+      sizer.check();
+      assertEquals(3, pool.getSize());
+      assertTrue(gotThird.await(1, TimeUnit.SECONDS));
+
+      c1.close();
+      c2.close();
+      waiter.join();
+      for (int i = 0; i < RedisPoolSizer.SHRINK_AFTER_CHECKS; i++) {
+        sizer.check();
+      }
+      assertEquals(2, pool.getSize());
+    } finally {
+      pool.destroy();
+    }
+  }
+}
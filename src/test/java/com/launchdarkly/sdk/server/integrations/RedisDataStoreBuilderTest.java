@@ -5,6 +5,8 @@ import org.junit.Test;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -27,6 +29,16 @@ public class RedisDataStoreBuilderTest {
     assertEquals(Duration.ofMillis(Protocol.DEFAULT_TIMEOUT), conf.socketTimeout);
     assertEquals(RedisStoreBuilder.DEFAULT_PREFIX, conf.prefix);
     assertNull(conf.poolConfig);
+    assertNull(conf.writePoolConfig);
+    assertNull(conf.hedgeDelay);
+    assertFalse(conf.hedgeDelayAdaptive);
+    assertNull(conf.hedgeUri);
+    assertEquals(0, conf.membershipCacheSize);
+    assertEquals(RedisStoreBuilder.DEFAULT_MEMBERSHIP_CACHE_TIME, conf.membershipCacheTime);
+    assertNull(conf.shardUris);
+    assertFalse(conf.shardMetadataFromAll);
+    assertEquals(0, conf.warmUpConnections);
+    assertEquals(0, conf.adaptivePoolMaxSize);
   }
 
   @Test
@@ -78,4 +90,65 @@ public class RedisDataStoreBuilderTest {
     RedisStoreBuilder<?> conf = Redis.dataStore().poolConfig(poolConfig);
     assertEquals(poolConfig, conf.poolConfig);
   }
+
+  @Test
+  public void testWritePoolConfigConfigured() throws URISyntaxException {
+    JedisPoolConfig writePoolConfig = new JedisPoolConfig();
+    RedisStoreBuilder<?> conf = Redis.dataStore().writePoolConfig(writePoolConfig);
+    assertEquals(writePoolConfig, conf.writePoolConfig);
+  }
+
+  @Test
+  public void testHedgedReadsConfigured() {
+    URI hedgeUri = URI.create("redis://replica:6379");
+    RedisStoreBuilder<?> conf = Redis.dataStore()
+        .hedgeDelay(Duration.ofMillis(5))
+        .hedgeDelayAdaptive(true)
+        .hedgeUri(hedgeUri);
+    assertEquals(Duration.ofMillis(5), conf.hedgeDelay);
+    assertTrue(conf.hedgeDelayAdaptive);
+    assertEquals(hedgeUri, conf.hedgeUri);
+  }
+
+  @Test
+  public void testMembershipCacheConfigured() {
+    RedisStoreBuilder<?> conf = Redis.bigSegmentStore()
+        .membershipCacheSize(1000)
+        .membershipCacheTime(Duration.ofMinutes(1));
+    assertEquals(1000, conf.membershipCacheSize);
+    assertEquals(Duration.ofMinutes(1), conf.membershipCacheTime);
+  }
+
+  @Test
+  public void testShardsConfigured() {
+    List<URI> shardUris = Arrays.asList(URI.create("redis://shard1:6379"), URI.create("redis://shard2:6379"));
+    RedisStoreBuilder<?> conf = Redis.bigSegmentStore()
+        .shardUris(shardUris)
+        .shardMetadataFromAll(true);
+    assertEquals(shardUris, conf.shardUris);
+    assertTrue(conf.shardMetadataFromAll);
+  }
+
+  @Test
+  public void testWarmUpConnectionsConfigured() {
+    RedisStoreBuilder<?> conf = Redis.dataStore().warmUpConnections(4);
+    assertEquals(4, conf.warmUpConnections);
+  }
+
+  @Test
+  public void testAdaptivePoolSizeConfigured() {
+    RedisStoreBuilder<?> conf = Redis.dataStore().adaptivePoolSize(2, 16);
+    assertEquals(2, conf.adaptivePoolMinSize);
+    assertEquals(16, conf.adaptivePoolMaxSize);
+  }
+
+  @Test
+  public void testAdaptivePoolSizeBoundsAreNormalized() {
+    RedisStoreBuilder<?> conf = Redis.dataStore().adaptivePoolSize(0, -1);
+    assertEquals(1, conf.adaptivePoolMinSize);
+    assertEquals(0, conf.adaptivePoolMaxSize);
+    conf.adaptivePoolSize(10, 5);
+    assertEquals(10, conf.adaptivePoolMinSize);
+    assertEquals(10, conf.adaptivePoolMaxSize);
+  }
 }
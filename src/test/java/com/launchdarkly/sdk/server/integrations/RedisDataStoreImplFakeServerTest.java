@@ -0,0 +1,47 @@
+package com.launchdarkly.sdk.server.integrations;
+
+import com.launchdarkly.sdk.server.integrations.RedisDataStoreImpl.UpdateListener;
+import com.launchdarkly.sdk.server.subsystems.ComponentConfigurer;
+import com.launchdarkly.sdk.server.subsystems.PersistentDataStore;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+
+/**
+ * Runs the standard data store tests against {@link FakeRedisServer}, so they do not need a real Redis.
+ */
+@SuppressWarnings("javadoc")
+public class RedisDataStoreImplFakeServerTest extends PersistentDataStoreTestBase<RedisDataStoreImpl> {
+  private static FakeRedisServer server;
+
+  @BeforeClass
+  public static void startServer() throws Exception {
+    server = new FakeRedisServer();
+  }
+
+  @AfterClass
+  public static void stopServer() throws Exception {
+    server.close();
+  }
+
+  @Override
+  protected ComponentConfigurer<PersistentDataStore> buildStore(String prefix) {
+    return Redis.dataStore().uri(server.getUri()).prefix(prefix);
+  }
+
+  @Override
+  protected void clearAllData() {
+    server.clear();
+  }
+
+  @Override
+  protected boolean setUpdateHook(RedisDataStoreImpl storeUnderTest, final Runnable hook) {
+    storeUnderTest.setUpdateListener(new UpdateListener() {
+      @Override
+      public void aboutToUpdate(String baseKey, String itemKey) {
+        hook.run();
+      }
+    });
+    return true;
+  }
+}
@@ -0,0 +1,121 @@
+package com.launchdarkly.sdk.server.integrations;
+
+import com.launchdarkly.logging.LDLogger;
+import com.launchdarkly.sdk.server.subsystems.BigSegmentStore;
+import com.launchdarkly.sdk.server.subsystems.PersistentDataStore;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+
+import static com.launchdarkly.sdk.server.integrations.RedisTestItems.KIND;
+import static com.launchdarkly.sdk.server.integrations.RedisTestItems.dataSet;
+import static com.launchdarkly.sdk.server.integrations.RedisTestItems.item;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.exceptions.JedisDataException;
+
+/**
+ * Tests of how the stores behave when Redis is slow or failing, using {@link FakeRedisServer}.
+ */
+@SuppressWarnings("javadoc")
+public class RedisFaultInjectionTest {
+  private FakeRedisServer server;
+
+  @Before
+  public void setUp() throws Exception {
+    server = new FakeRedisServer();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    server.close();
+  }
+
+  private RedisStoreBuilder<PersistentDataStore> dataStoreConfig() {
+    return Redis.dataStore().uri(server.getUri());
+  }
+
+  @Test
+  public void upsertRetriesAfterWatchConflicts() throws Exception {
+    try (RedisDataStoreImpl store = new RedisDataStoreImpl(dataStoreConfig(), LDLogger.none())) {
+      store.init(dataSet(1));
+      long execsBefore = server.getCommandCount("EXEC");
+      server.conflictNextExec(2);
+
+      assertTrue(store.upsert(KIND, "key0", item(2, "updated")));
+
+      assertEquals(3, server.getCommandCount("EXEC") - execsBefore);
+      assertEquals("2:updated", store.get(KIND, "key0").getSerializedItem());
+    }
+  }
+
+  @Test
+  public void readErrorIsThrownAndNextReadSucceeds() throws Exception {
+    try (RedisDataStoreImpl store = new RedisDataStoreImpl(dataStoreConfig(), LDLogger.none())) {
+      store.init(dataSet(1));
+      server.failNext("HGET", 1);
+      try {
+        store.get(KIND, "key0");
+        fail("expected exception");
+      } catch (JedisDataException e) {
+        // expected
+      }
+      assertEquals("1:value0", store.get(KIND, "key0").getSerializedItem());
+    }
+  }
+
+  @Test
+  public void droppedConnectionMakesStoreUnavailableUntilNextRequest() throws Exception {
+    try (RedisDataStoreImpl store = new RedisDataStoreImpl(dataStoreConfig(), LDLogger.none())) {
+      store.init(dataSet(1));
+      server.disconnectNext("EXISTS", 1);
+      assertFalse(store.isStoreAvailable());
+      assertTrue(store.isStoreAvailable());
+    }
+  }
+
+  @Test
+  public void slowReplyIsHedged() throws Exception {
+    RedisStoreBuilder<PersistentDataStore> config = dataStoreConfig().hedgeDelay(Duration.ofMillis(20));
+    try (RedisDataStoreImpl store = new RedisDataStoreImpl(config, LDLogger.none())) {
+      store.init(dataSet(1));
+      server.delayNext("HGET", 1, Duration.ofSeconds(2));
+
+      long startTime = System.nanoTime();
+      assertEquals("1:value0", store.get(KIND, "key0").getSerializedItem());
+      long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+
+      assertTrue("read took " + elapsedMillis + "ms", elapsedMillis < 1000);
+      assertEquals(1, config.getHedgedReadStats().getHedgesIssued());
+      assertEquals(1, config.getHedgedReadStats().getHedgesWon());
+    }
+  }
+
+  @Test
+  public void membershipCacheAvoidsRepeatedQueriesUntilSyncTimeChanges() throws Exception {
+    RedisStoreBuilder<BigSegmentStore> config = Redis.bigSegmentStore().uri(server.getUri())
+        .membershipCacheSize(100);
+    try (RedisBigSegmentStoreImpl store = new RedisBigSegmentStoreImpl(config, LDLogger.none());
+         Jedis client = new Jedis("localhost", server.getPort())) {
+      client.set(RedisStoreBuilder.DEFAULT_PREFIX + ":big_segments_synchronized_on", "1000");
+      client.sadd(RedisStoreBuilder.DEFAULT_PREFIX + ":big_segment_include:user1", "seg1.g1");
+      store.getMetadata();
+
+      store.getMembership("user1");
+      store.getMembership("user1");
+      assertEquals(2, server.getCommandCount("SMEMBERS")); // included and excluded sets, queried once
+
+      client.set(RedisStoreBuilder.DEFAULT_PREFIX + ":big_segments_synchronized_on", "2000");
+      store.getMetadata();
+      store.getMembership("user1");
+      assertEquals(4, server.getCommandCount("SMEMBERS"));
+    }
+  }
+}
@@ -0,0 +1,154 @@
+package com.launchdarkly.sdk.server.integrations;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.exceptions.JedisDataException;
+
+/**
+ * Tests of {@link RedisHedgedReader}, using {@link FakeRedisServer}.
+ */
+@SuppressWarnings("javadoc")
+public class RedisHedgedReaderTest {
+  private FakeRedisServer server;
+  private JedisPool pool;
+
+  @Before
+  public void setUp() throws Exception {
+    server = new FakeRedisServer();
+    pool = new JedisPool(new JedisPoolConfig(), "localhost", server.getPort());
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    pool.destroy();
+    server.close();
+  }
+
+  private static RedisHedgedReader reader(Duration delay, boolean adaptive) {
+    return new RedisHedgedReader(delay, adaptive, 8, new RedisHedgedReadStats());
+  }
+
+  @Test
+  public void fastReadIsNotHedged() {
+    try (RedisHedgedReader reader = reader(Duration.ofSeconds(1), false)) {
+      assertEquals("PONG", reader.read(pool, pool, jedis -> jedis.ping()));
+      assertEquals(0, reader.getStats().getHedgesIssued());
+      assertEquals(0, reader.getStats().getHedgesWon());
+    }
+  }
+
+  @Test
+  public void slowReadIsHedgedAndHedgeWins() {
+    AtomicInteger calls = new AtomicInteger();
+    try (RedisHedgedReader reader = reader(Duration.ofMillis(20), false)) {
+      String result = reader.read(pool, pool, jedis -> {
+        if (calls.incrementAndGet() == 1) {
+          sleep(1000);
+          return "primary";
+        }
+        return "hedge";
+      });
+      assertEquals("hedge", result);
+      assertEquals(1, reader.getStats().getHedgesIssued());
+      assertEquals(1, reader.getStats().getHedgesWon());
+    }
+  }
+
+  @Test
+  public void errorIsReportedIfAllAttemptsFail() {
+    try (RedisHedgedReader reader = reader(Duration.ofSeconds(1), false)) {
+      try {
+        reader.read(pool, pool, jedis -> {
+          throw new JedisDataException("sorry");
+        });
+        fail("expected exception");
+      } catch (JedisDataException e) {
+        assertEquals("sorry", e.getMessage());
+      }
+    }
+  }
+
+  @Test
+  public void hedgeIsSkippedWhileFirstAttemptWaitsForConnectionFromSamePool() throws Exception {
+    JedisPoolConfig poolConfig = new JedisPoolConfig();
+    poolConfig.setMaxTotal(1);
+    JedisPool smallPool = new JedisPool(poolConfig, "localhost", server.getPort());
+    try (RedisHedgedReader reader = reader(Duration.ofMillis(20), false)) {
+      Jedis held = smallPool.getResource();
+      Thread releaser = new Thread(() -> {
+        sleep(200);
+        held.close();
+      });
+      releaser.start();
+      assertEquals("PONG", reader.read(smallPool, smallPool, jedis -> jedis.ping()));
+      releaser.join();
+      assertEquals(0, reader.getStats().getHedgesIssued());
+      assertEquals(1, reader.getStats().getHedgesSkipped());
+    } finally {
+      smallPool.destroy();
+    }
+  }
+
+  @Test
+  public void readIsPerformedOnCallingThreadWhenAllThreadsAreBusy() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    try (RedisHedgedReader reader = new RedisHedgedReader(Duration.ofSeconds(10), false, 1, new RedisHedgedReadStats())) {
+      Thread busy = new Thread(() -> reader.read(pool, pool, jedis -> {
+        started.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return "busy";
+      }));
+      busy.start();
+      assertTrue(started.await(1, TimeUnit.SECONDS));
+
+      Thread caller = Thread.currentThread();
+      assertEquals("PONG", reader.read(pool, pool, jedis -> {
+        assertEquals(caller, Thread.currentThread());
+        return jedis.ping();
+      }));
+      assertEquals(1, reader.getStats().getHedgesSkipped());
+
+      release.countDown();
+      busy.join();
+    }
+  }
+
+  @Test
+  public void adaptiveDelayTracksObservedLatency() {
+    try (RedisHedgedReader reader = reader(Duration.ofSeconds(10), true)) {
+      for (int i = 0; i < 100; i++) {
+        reader.read(pool, pool, jedis -> jedis.ping());
+      }
+      if (reader.getDelay().compareTo(Duration.ofSeconds(1)) >= 0) {
+        fail("expected delay to have adapted to local latency, but it was " + reader.getDelay());
+      }
+    }
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,96 @@
+package com.launchdarkly.sdk.server.integrations;
+
+import com.launchdarkly.logging.LDLogger;
+import com.launchdarkly.logging.Logs;
+import com.launchdarkly.sdk.server.integrations.RedisBigSegmentWriter.Change;
+import com.launchdarkly.sdk.server.subsystems.BigSegmentStore;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.launchdarkly.sdk.server.integrations.RedisTestItems.KIND;
+import static com.launchdarkly.sdk.server.integrations.RedisTestItems.dataSet;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Short load tests against {@link FakeRedisServer}, which log latency percentiles. They check only
+ * error counts, not latency; to investigate performance, increase the rate and duration.
+ * <p>
+ * These are not run as part of the normal unit tests. To run them: {@code ./gradlew test -PloadTests}
+ */
+@SuppressWarnings("javadoc")
+public class RedisLoadTest {
+  static final String ENABLE_PROPERTY = "loadTests";
+
+  private static final int ITEM_COUNT = 100;
+  private static final int USER_COUNT = 1000;
+  private static final int TARGET_QPS = 1000;
+  private static final Duration DURATION = Duration.ofSeconds(1);
+  private static final int THREADS = 16;
+
+  private final LDLogger testLogger = LDLogger.withAdapter(Logs.basic(), RedisLoadTest.class.getSimpleName());
+  private FakeRedisServer server;
+
+  @Before
+  public void setUp() throws Exception {
+    Assume.assumeTrue("load tests are only run with -P" + ENABLE_PROPERTY, Boolean.getBoolean(ENABLE_PROPERTY));
+    server = new FakeRedisServer();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    if (server != null) {
+      server.close();
+    }
+  }
+
+  @Test
+  public void dataStoreGet() throws Exception {
+    try (RedisDataStoreImpl store = new RedisDataStoreImpl(Redis.dataStore().uri(server.getUri()), LDLogger.none())) {
+      store.init(dataSet(ITEM_COUNT));
+      RedisLoadTestHarness.Result result = RedisLoadTestHarness.run("data store get", TARGET_QPS, DURATION, THREADS,
+          () -> store.get(KIND, "key" + ThreadLocalRandom.current().nextInt(ITEM_COUNT)));
+      testLogger.info("{}", result);
+      assertEquals(0, result.errors);
+    }
+  }
+
+  @Test
+  public void dataStoreGetWithSlowAndFailingReplies() throws Exception {
+    try (RedisDataStoreImpl store = new RedisDataStoreImpl(Redis.dataStore().uri(server.getUri()), LDLogger.none())) {
+      store.init(dataSet(ITEM_COUNT));
+      server.latency("HGET", Duration.ofMillis(1)).errorRate("HGET", 0.01).disconnectRate("HGET", 0.005);
+      RedisLoadTestHarness.Result result = RedisLoadTestHarness.run("data store get with faults", TARGET_QPS, DURATION,
+          THREADS, () -> store.get(KIND, "key" + ThreadLocalRandom.current().nextInt(ITEM_COUNT)));
+      testLogger.info("{}", result);
+      assertTrue(result.errors > 0);
+    }
+  }
+
+  @Test
+  public void bigSegmentGetMembership() throws Exception {
+    RedisStoreBuilder<BigSegmentStore> config =
+        Redis.bigSegmentStore().uri(server.getUri());
+    List<Change> changes = new ArrayList<>();
+    for (int i = 0; i < USER_COUNT; i++) {
+      changes.add(Change.addIncluded("user" + i, "seg" + (i % 10) + ".g1"));
+    }
+    try (RedisBigSegmentWriter writer = Redis.bigSegmentWriter(config, LDLogger.none());
+         RedisBigSegmentStoreImpl store = new RedisBigSegmentStoreImpl(config, LDLogger.none())) {
+      writer.applyChanges(changes, System.currentTimeMillis());
+      server.latency("SMEMBERS", Duration.ofMillis(1));
+      RedisLoadTestHarness.Result result = RedisLoadTestHarness.run("big segment getMembership", TARGET_QPS, DURATION,
+          THREADS, () -> store.getMembership("user" + ThreadLocalRandom.current().nextInt(USER_COUNT)));
+      testLogger.info("{}", result);
+      assertEquals(0, result.errors);
+    }
+  }
+}
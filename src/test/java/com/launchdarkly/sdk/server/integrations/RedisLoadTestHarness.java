@@ -0,0 +1,97 @@
+package com.launchdarkly.sdk.server.integrations;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives an operation at a fixed target rate from a pool of threads, and reports latency percentiles.
+ * <p>
+ * Each operation has an intended start time based on the target rate, and its latency is measured from
+ * that time rather than from when a thread actually picked it up. So if the system under test falls
+ * behind, the time operations spend waiting is counted, instead of being hidden by the load generator
+ * slowing down ("coordinated omission").
+ */
+final class RedisLoadTestHarness {
+  private RedisLoadTestHarness() {}
+
+  static Result run(String name, int targetQps, Duration duration, int threads, Runnable op)
+      throws InterruptedException {
+    int total = (int) (targetQps * duration.toMillis() / 1000);
+    long intervalNanos = 1_000_000_000L / targetQps;
+    long[] latencies = new long[total];
+    AtomicLong errors = new AtomicLong();
+    CountDownLatch done = new CountDownLatch(total);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    long startTime = System.nanoTime();
+    try {
+      for (int i = 0; i < total; i++) {
+        long intendedStart = startTime + i * intervalNanos;
+        long wait = intendedStart - System.nanoTime();
+        if (wait > 0) {
+          LockSupport.parkNanos(wait);
+        }
+        int index = i;
+        executor.execute(() -> {
+          try {
+            op.run();
+          } catch (RuntimeException e) {
+            errors.incrementAndGet();
+          } finally {
+            latencies[index] = System.nanoTime() - intendedStart;
+            done.countDown();
+          }
+        });
+      }
+      done.await();
+    } finally {
+      executor.shutdown();
+    }
+    Duration elapsed = Duration.ofNanos(System.nanoTime() - startTime);
+    return new Result(name, latencies, errors.get(), elapsed);
+  }
+
+  static final class Result {
+    final String name;
+    final long count;
+    final long errors;
+    final Duration elapsed;
+    private final long[] sortedLatencies;
+
+    Result(String name, long[] latencies, long errors, Duration elapsed) {
+      this.name = name;
+      this.count = latencies.length;
+      this.errors = errors;
+      this.elapsed = elapsed;
+      this.sortedLatencies = Arrays.copyOf(latencies, latencies.length);
+      Arrays.sort(sortedLatencies);
+    }
+
+    Duration percentile(double p) {
+      if (sortedLatencies.length == 0) {
+        return Duration.ZERO;
+      }
+      int index = Math.max(0, (int) Math.ceil(sortedLatencies.length * p / 100) - 1);
+      return Duration.ofNanos(sortedLatencies[index]);
+    }
+
+    double achievedQps() {
+      return count * 1_000_000_000.0 / elapsed.toNanos();
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s: %d ops, %d errors, %.0f ops/s; p50=%.3fms p90=%.3fms p99=%.3fms p99.9=%.3fms max=%.3fms",
+          name, count, errors, achievedQps(), millis(percentile(50)), millis(percentile(90)),
+          millis(percentile(99)), millis(percentile(99.9)), millis(percentile(100)));
+    }
+
+    private static double millis(Duration d) {
+      return d.toNanos() / 1_000_000.0;
+    }
+  }
+}
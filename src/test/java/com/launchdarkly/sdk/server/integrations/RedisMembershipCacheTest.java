@@ -0,0 +1,89 @@
+package com.launchdarkly.sdk.server.integrations;
+
+import com.launchdarkly.sdk.server.subsystems.BigSegmentStoreTypes;
+import com.launchdarkly.sdk.server.subsystems.BigSegmentStoreTypes.Membership;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@SuppressWarnings("javadoc")
+public class RedisMembershipCacheTest {
+  private static final Membership MEMBERSHIP = BigSegmentStoreTypes.createMembershipFromSegmentRefs(
+      Collections.singleton("seg1"), Collections.<String>emptyList());
+
+  @Test
+  public void getReturnsCachedMembership() {
+    RedisMembershipCache cache = new RedisMembershipCache(100, null);
+    cache.put("user1", MEMBERSHIP, cache.getGeneration());
+    assertSame(MEMBERSHIP, cache.get("user1").membership);
+    assertNull(cache.get("user2"));
+  }
+
+  @Test
+  public void nullMembershipIsCached() {
+    RedisMembershipCache cache = new RedisMembershipCache(100, null);
+    cache.put("user1", null, cache.getGeneration());
+    RedisMembershipCache.Entry entry = cache.get("user1");
+    assertNotNull(entry);
+    assertNull(entry.membership);
+  }
+
+  @Test
+  public void sizeIsBounded() {
+    RedisMembershipCache cache = new RedisMembershipCache(10, null);
+    for (int i = 0; i < 1000; i++) {
+      cache.put("user" + i, MEMBERSHIP, cache.getGeneration());
+    }
+    assertTrue(cache.size() <= 10);
+  }
+
+  @Test
+  public void configuredSizeIsReachedWhenItIsNotAMultipleOfStripeCount() {
+    for (int maxEntries: new int[] { 1, 31, 1000 }) {
+      RedisMembershipCache cache = new RedisMembershipCache(maxEntries, null);
+      for (int i = 0; i < maxEntries * 100; i++) {
+        cache.put("user" + i, MEMBERSHIP, cache.getGeneration());
+      }
+      assertEquals(maxEntries, cache.size());
+    }
+  }
+
+  @Test
+  public void entryExpires() throws Exception {
+    RedisMembershipCache cache = new RedisMembershipCache(100, Duration.ofMillis(1));
+    cache.put("user1", MEMBERSHIP, cache.getGeneration());
+    Thread.sleep(10);
+    assertNull(cache.get("user1"));
+  }
+
+  @Test
+  public void changedSyncTimeInvalidatesCache() {
+    RedisMembershipCache cache = new RedisMembershipCache(100, null);
+    cache.syncTimeObserved("1000");
+    cache.put("user1", MEMBERSHIP, cache.getGeneration());
+
+    cache.syncTimeObserved("1000");
+    assertNotNull(cache.get("user1"));
+
+    cache.syncTimeObserved("2000");
+    assertNull(cache.get("user1"));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void resultFromBeforeInvalidationIsNotCached() {
+    RedisMembershipCache cache = new RedisMembershipCache(100, null);
+    long generation = cache.getGeneration();
+    cache.invalidateAll();
+    cache.put("user1", MEMBERSHIP, generation);
+    assertNull(cache.get("user1"));
+  }
+}
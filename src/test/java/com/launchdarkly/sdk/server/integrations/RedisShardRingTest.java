@@ -0,0 +1,94 @@
+package com.launchdarkly.sdk.server.integrations;
+
+import org.junit.Test;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+@SuppressWarnings("javadoc")
+public class RedisShardRingTest {
+  private static final int KEY_COUNT = 10000;
+
+  @Test
+  public void routingDoesNotDependOnShardOrder() {
+    RedisShardRing<String> ring1 = new RedisShardRing<>(Arrays.asList("a", "b", "c"), Arrays.asList("a", "b", "c"));
+    RedisShardRing<String> ring2 = new RedisShardRing<>(Arrays.asList("c", "a", "b"), Arrays.asList("c", "a", "b"));
+    for (int i = 0; i < KEY_COUNT; i++) {
+      assertEquals(ring1.get("user" + i), ring2.get("user" + i));
+    }
+  }
+
+  @Test
+  public void shardIdIgnoresPasswordAndUriFormatting() {
+    RedisStoreBuilder<?> builder = Redis.bigSegmentStore();
+    String id = RedisConnectionPools.shardId(builder, URI.create("redis://host1:6379"));
+    for (String uri: new String[] {
+        "redis://:password1@host1:6379",
+        "redis://:password2@host1:6379/",
+        "redis://HOST1:6379/0",
+        "rediss://host1"
+        }) {
+      assertEquals(uri, id, RedisConnectionPools.shardId(builder, URI.create(uri)));
+    }
+    assertNotEquals(id, RedisConnectionPools.shardId(builder, URI.create("redis://host1:6379/1")));
+    assertNotEquals(id, RedisConnectionPools.shardId(builder, URI.create("redis://host1:6380")));
+    assertNotEquals(id, RedisConnectionPools.shardId(builder, URI.create("redis://host2:6379")));
+  }
+
+  @Test
+  public void routingDoesNotDependOnPasswordOrUriFormatting() {
+    RedisShardRing<String> ring1 = ringForUris("redis://:old@host1:6379", "redis://host2:6379", "redis://host3:6379");
+    RedisShardRing<String> ring2 = ringForUris("redis://:new@host1:6379/", "redis://host2:6379/0", "redis://Host3:6379");
+    for (int i = 0; i < KEY_COUNT; i++) {
+      assertEquals(ring1.get("user" + i), ring2.get("user" + i));
+    }
+  }
+
+  // Each shard is represented by its index in the list, so that rings can be compared.
+  private static RedisShardRing<String> ringForUris(String... uris) {
+    RedisStoreBuilder<?> builder = Redis.bigSegmentStore();
+    List<String> ids = new ArrayList<>();
+    List<String> shards = new ArrayList<>();
+    for (int i = 0; i < uris.length; i++) {
+      ids.add(RedisConnectionPools.shardId(builder, URI.create(uris[i])));
+      shards.add(String.valueOf(i));
+    }
+    return new RedisShardRing<>(ids, shards);
+  }
+
+  @Test
+  public void keysAreSpreadAcrossShards() {
+    RedisShardRing<String> ring = new RedisShardRing<>(Arrays.asList("a", "b", "c", "d"), Arrays.asList("a", "b", "c", "d"));
+    Map<String, Integer> counts = new HashMap<>();
+    for (int i = 0; i < KEY_COUNT; i++) {
+      counts.merge(ring.get("user" + i), 1, Integer::sum);
+    }
+    assertEquals(4, counts.size());
+    for (int count: counts.values()) {
+      assertTrue("shard has " + count + " keys", count > KEY_COUNT / 4 * 0.7 && count < KEY_COUNT / 4 * 1.3);
+    }
+  }
+
+  @Test
+  public void addingShardOnlyMovesKeysToNewShard() {
+    RedisShardRing<String> before = new RedisShardRing<>(Arrays.asList("a", "b", "c"), Arrays.asList("a", "b", "c"));
+    RedisShardRing<String> after = new RedisShardRing<>(Arrays.asList("a", "b", "c", "d"), Arrays.asList("a", "b", "c", "d"));
+    int moved = 0;
+    for (int i = 0; i < KEY_COUNT; i++) {
+      String oldShard = before.get("user" + i), newShard = after.get("user" + i);
+      if (!oldShard.equals(newShard)) {
+        assertEquals("d", newShard);
+        moved++;
+      }
+    }
+    assertTrue("moved " + moved + " keys", moved > KEY_COUNT / 4 * 0.7 && moved < KEY_COUNT / 4 * 1.3);
+  }
+}
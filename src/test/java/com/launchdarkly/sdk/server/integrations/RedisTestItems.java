@@ -0,0 +1,42 @@
+package com.launchdarkly.sdk.server.integrations;
+
+import com.launchdarkly.sdk.server.subsystems.DataStoreTypes.DataKind;
+import com.launchdarkly.sdk.server.subsystems.DataStoreTypes.FullDataSet;
+import com.launchdarkly.sdk.server.subsystems.DataStoreTypes.ItemDescriptor;
+import com.launchdarkly.sdk.server.subsystems.DataStoreTypes.KeyedItems;
+import com.launchdarkly.sdk.server.subsystems.DataStoreTypes.SerializedItemDescriptor;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A simple data kind for tests that use the data store directly. Items are strings, serialized as
+ * "version:value"; a deleted item has an empty value.
+ */
+final class RedisTestItems {
+  static final DataKind KIND = new DataKind("test-items",
+      item -> item.getVersion() + ":" + (item.getItem() == null ? "" : item.getItem()),
+      s -> {
+        int i = s.indexOf(':');
+        String value = s.substring(i + 1);
+        return new ItemDescriptor(Integer.parseInt(s.substring(0, i)), value.isEmpty() ? null : value);
+      });
+
+  private RedisTestItems() {}
+
+  static SerializedItemDescriptor item(int version, String value) {
+    return new SerializedItemDescriptor(version, false, version + ":" + value);
+  }
+
+  static FullDataSet<SerializedItemDescriptor> dataSet(int itemCount) {
+    List<Map.Entry<String, SerializedItemDescriptor>> items = new ArrayList<>();
+    for (int i = 0; i < itemCount; i++) {
+      items.add(new AbstractMap.SimpleEntry<>("key" + i, item(1, "value" + i)));
+    }
+    return new FullDataSet<>(Collections.<Map.Entry<DataKind, KeyedItems<SerializedItemDescriptor>>>singletonList(
+        new AbstractMap.SimpleEntry<>(KIND, new KeyedItems<>(items))));
+  }
+}